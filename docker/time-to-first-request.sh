@@ -0,0 +1,20 @@
+#!/bin/sh
+# Time from JVM launch to the first successful request, e.g.
+#   docker/time-to-first-request.sh java -jar target/springboot-api-0.0.1-SNAPSHOT.jar
+#   docker/time-to-first-request.sh java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar app/app.jar
+# Polls URL (default: the liveness probe, which answers before the cache warm-up finishes), prints the
+# milliseconds, then stops the application. Needs the same database and Redis as a normal start.
+URL=${URL:-http://localhost:8080/actuator/health/liveness}
+start=$(date +%s%N)
+"$@" > "${LOG:-/tmp/ttfr.log}" 2>&1 &
+pid=$!
+until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Application exited, see ${LOG:-/tmp/ttfr.log}" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+echo "time to first request: $(( ($(date +%s%N) - start) / 1000000 )) ms"
+kill "$pid"
+wait "$pid" 2>/dev/null
@@ -0,0 +1,97 @@
+package com.example.springbootapi.dto;
+
+import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.enums.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a {@code Page<TransactionDTO>} response body in each negotiable format, on the server side
+ * (serialize) and on a client reading it back (deserialize). Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader pageReader;
+    private Page<TransactionDTO> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same defaults Spring Boot applies to the MVC ObjectMapper (JavaTimeModule, ISO dates)
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        pageReader = objectMapper.readerFor(PageBody.class);
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionDTO> content = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            content.add(TransactionDTO.builder()
+                    .id(i)
+                    .fromAccountId(10L)
+                    .fromAccountNumber("0x5f3Rk2v8QmZp1LxA7cN4yT6bW9eH0jUoS2dG8kIq")
+                    .toAccountId(11L)
+                    .toAccountNumber("0x9aB3cD5eF7gH1iJ3kL5mN7oP9qR1sT3uV5wX7yZ9")
+                    .amount(new BigDecimal("25.50"))
+                    .type(TransactionType.TRANSFER)
+                    .status(TransactionStatus.COMPLETED)
+                    .attempts(1)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "id")), 50_000);
+        payload = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d: %d bytes%n", format, pageSize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageBody deserializeTransactionPage() throws Exception {
+        return pageReader.readValue(payload);
+    }
+
+    /**
+     * What a client typically binds a page response to; paging metadata beyond the totals is skipped.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PageBody {
+        public List<TransactionDTO> content;
+        public long totalElements;
+        public int totalPages;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springbootapi.filter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    @Param({"remote-addr", "x-forwarded-for"})
+    public String clientIpSource;
+
+    @Param({"POST /api/transactions", "GET /api/accounts/42/balance"})
+    public String endpoint;
+
+    private RateLimitingFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingFilter(null, null);
+        ReflectionTestUtils.setField(filter, "loginMaxRequests", 5);
+        ReflectionTestUtils.setField(filter, "loginWindowSeconds", 60);
+        ReflectionTestUtils.setField(filter, "registerMaxRequests", 10);
+        ReflectionTestUtils.setField(filter, "registerWindowSeconds", 3600);
+        ReflectionTestUtils.setField(filter, "transactionsMaxRequests", 20);
+        ReflectionTestUtils.setField(filter, "transactionsWindowSeconds", 60);
+        ReflectionTestUtils.setField(filter, "defaultMaxRequests", 100);
+        ReflectionTestUtils.setField(filter, "defaultWindowSeconds", 60);
+
+        String[] parts = endpoint.split(" ");
+        request = new MockHttpServletRequest(parts[0], parts[1]);
+        request.setRemoteAddr("10.0.0.17");
+        if ("x-forwarded-for".equals(clientIpSource)) {
+            request.addHeader("X-Forwarded-For", "203.0.113.9, 198.51.100.4, 10.0.0.1");
+        }
+    }
+
+    @Benchmark
+    public String resolveKeyAndLimit(Blackhole blackhole) {
+        String ip = filter.extractClientIp(request);
+        blackhole.consume(filter.resolveLimit(request.getMethod(), request.getRequestURI()));
+        return RateLimitingFilter.rateLimitKey(request.getMethod(), request.getRequestURI(), ip);
+    }
+}
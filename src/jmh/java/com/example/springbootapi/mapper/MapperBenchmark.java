@@ -0,0 +1,72 @@
+package com.example.springbootapi.mapper;
+
+import com.example.springbootapi.dto.AccountDTO;
+import com.example.springbootapi.dto.TransactionDTO;
+import com.example.springbootapi.dto.UserRequestDTO;
+import com.example.springbootapi.dto.UserResponseDTO;
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.entity.Transaction;
+import com.example.springbootapi.entity.User;
+import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.enums.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final TransactionMapper transactionMapper = TransactionMapper.INSTANCE;
+    private final AccountMapper accountMapper = AccountMapper.INSTANCE;
+    private final UserMapper userMapper = UserMapper.INSTANCE;
+
+    private Transaction transaction;
+    private Account account;
+    private User user;
+    private UserRequestDTO userRequest;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = User.builder().id(1L).username("benchmark").password("secret").email("benchmark@example.com")
+                .createdAt(now).updatedAt(now).build();
+        account = Account.builder().id(10L).accountNumber("0x5f3Rk2v8QmZp1LxA7cN4yT6bW9eH0jUoS2dG8kIq")
+                .balance(new BigDecimal("1250.75")).version(3L).user(user).createdAt(now).updatedAt(now).build();
+        Account toAccount = Account.builder().id(11L).accountNumber("0x9aB3cD5eF7gH1iJ3kL5mN7oP9qR1sT3uV5wX7yZ9")
+                .balance(new BigDecimal("80.00")).version(1L).user(user).createdAt(now).updatedAt(now).build();
+        transaction = Transaction.builder().id(100L).fromAccount(account).toAccount(toAccount)
+                .amount(new BigDecimal("25.50")).type(TransactionType.TRANSFER).status(TransactionStatus.COMPLETED)
+                .createdAt(now).updatedAt(now).build();
+        userRequest = new UserRequestDTO();
+        userRequest.setUsername("benchmark");
+        userRequest.setPassword("secret");
+        userRequest.setEmail("benchmark@example.com");
+    }
+
+    @Benchmark
+    public TransactionDTO transactionToDto() {
+        return transactionMapper.toDTO(transaction);
+    }
+
+    @Benchmark
+    public AccountDTO accountToDto() {
+        return accountMapper.toDTO(account);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToResponseDto() {
+        return userMapper.toResponseDTO(user);
+    }
+
+    @Benchmark
+    public User userRequestToEntity() {
+        return userMapper.toEntity(userRequest);
+    }
+}
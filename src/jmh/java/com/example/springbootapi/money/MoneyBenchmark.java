@@ -0,0 +1,118 @@
+package com.example.springbootapi.money;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BigDecimal} against {@link Money} for the two shapes of money arithmetic in the services: folding a
+ * list of amounts into totals (analytics periods, statement sums, velocity windows) and a transfer's balance
+ * check and update. The {@code *FromBigDecimal} variant converts each amount on the way in, as a sum over rows
+ * loaded from the database does. Run with the default {@code gc} profiler to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"1000"})
+    public int amounts;
+
+    private BigDecimal[] decimals;
+    private Money[] moneys;
+    private BigDecimal fromBalance;
+    private BigDecimal toBalance;
+    private BigDecimal amount;
+    private Money fromMoney;
+    private Money toMoney;
+    private Money amountMoney;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        decimals = new BigDecimal[amounts];
+        moneys = new Money[amounts];
+        for (int i = 0; i < amounts; i++) {
+            long cents = random.nextLong(1, 10_000_000);
+            decimals[i] = BigDecimal.valueOf(cents, 2);
+            moneys[i] = Money.ofCents(cents);
+        }
+        fromBalance = new BigDecimal("125000.00");
+        toBalance = new BigDecimal("98000.50");
+        amount = new BigDecimal("250.75");
+        fromMoney = Money.of(fromBalance);
+        toMoney = Money.of(toBalance);
+        amountMoney = Money.of(amount);
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal value : decimals) {
+            total = total.add(value);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumMoneyObjects() {
+        Money total = Money.ZERO;
+        for (Money value : moneys) {
+            total = total.plus(value);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money sumMoneyCents() {
+        long total = 0;
+        for (Money value : moneys) {
+            total = Math.addExact(total, value.cents());
+        }
+        return Money.ofCents(total);
+    }
+
+    @Benchmark
+    public BigDecimal sumMoneyFromBigDecimal() {
+        long total = 0;
+        for (BigDecimal value : decimals) {
+            total = Math.addExact(total, Money.of(value).cents());
+        }
+        return Money.ofCents(total).toBigDecimal();
+    }
+
+    @Benchmark
+    public void transferBigDecimal(Blackhole blackhole) {
+        if (fromBalance.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(fromBalance.subtract(amount));
+        blackhole.consume(toBalance.add(amount));
+    }
+
+    @Benchmark
+    public void transferMoney(Blackhole blackhole) {
+        if (fromMoney.isLessThan(amountMoney)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(fromMoney.minus(amountMoney).cents());
+        blackhole.consume(toMoney.plus(amountMoney).cents());
+    }
+
+    @Benchmark
+    public void transferMoneyFromBigDecimal(Blackhole blackhole) {
+        Money from = Money.of(fromBalance);
+        Money value = Money.of(amount);
+        if (from.isLessThan(value)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(from.minus(value).toBigDecimal());
+        blackhole.consume(Money.of(toBalance).plus(value).toBigDecimal());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.springbootapi.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login cost at each BCrypt work factor. Sampling mode reports percentiles, so read the p0.99 row of
+ * {@code matches} as the password check's share of login p99 on one core; the rest of a login is well under
+ * a millisecond. Pick the highest strength whose p99 still fits the login latency budget, then set
+ * {@code password-hashing.bcrypt-strength}.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@jmh -Djmh.benchmarks=PasswordEncoderBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"8", "10", "12", "14"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    /**
+     * A login: verifying the submitted password against the stored hash.
+     */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    /**
+     * Registration, password change, and the one-off rehash when a login upgrades an outdated hash.
+     */
+    @Benchmark
+    public String encode() {
+        return encoder.encode("correct horse battery staple");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberBenchmark {
+
+    private AccountService accountService;
+
+    @Setup
+    public void setUp() {
+        // No database: every generated number is reported as unused
+        AccountRepository accountRepository = (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+        accountService = new AccountService(accountRepository, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public String generateAccountNumber() {
+        return accountService.generateAccountNumber();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.springbootapi.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the update-in-place path (PENDING insert, versioned balance updates on both accounts,
+ * status update) against the insert-only path (transaction row plus one DEBIT and one CREDIT entry), with
+ * the same SQL shapes the application issues. Unlike the other benchmarks this one needs PostgreSQL, found
+ * through the same DATABASE_URL / PGUSER / PGPASSWORD variables as the application:
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec@jmh -Djmh.benchmarks=LedgerWriteBenchmark
+ * </pre>
+ *
+ * It works on its own bench_* tables, created in setup and dropped in teardown. {@code accounts} controls
+ * contention: with few accounts the update path spends its time on row locks and version conflicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class LedgerWriteBenchmark {
+
+    @Param({"16", "10000"})
+    public int accounts;
+
+    @Setup(Level.Trial)
+    public void createTables() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_ledger_entries, bench_transactions, bench_accounts");
+            statement.execute("CREATE TABLE bench_accounts (id BIGINT PRIMARY KEY, balance DECIMAL(19, 2) NOT NULL, version BIGINT NOT NULL)");
+            statement.execute("CREATE TABLE bench_transactions (id BIGSERIAL PRIMARY KEY, from_account_id BIGINT, to_account_id BIGINT, "
+                    + "amount DECIMAL(19, 2) NOT NULL, status VARCHAR(20) NOT NULL, updated_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE TABLE bench_ledger_entries (id BIGSERIAL PRIMARY KEY, transaction_id BIGINT NOT NULL, account_id BIGINT, "
+                    + "direction VARCHAR(10) NOT NULL, amount DECIMAL(19, 2) NOT NULL, created_at TIMESTAMP NOT NULL, "
+                    + "UNIQUE (transaction_id, direction))");
+            statement.execute("CREATE INDEX ON bench_ledger_entries(account_id)");
+            statement.execute("INSERT INTO bench_accounts SELECT g, 1000000, 0 FROM generate_series(1, " + accounts + ") g");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTables() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_ledger_entries, bench_transactions, bench_accounts");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement insertPending;
+        PreparedStatement selectAccount;
+        PreparedStatement updateAccount;
+        PreparedStatement updateStatus;
+        PreparedStatement insertCompleted;
+        PreparedStatement insertEntry;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            insertPending = connection.prepareStatement(
+                    "INSERT INTO bench_transactions (from_account_id, to_account_id, amount, status, updated_at) VALUES (?, ?, ?, 'PENDING', LOCALTIMESTAMP)",
+                    Statement.RETURN_GENERATED_KEYS);
+            selectAccount = connection.prepareStatement("SELECT balance, version FROM bench_accounts WHERE id = ?");
+            updateAccount = connection.prepareStatement("UPDATE bench_accounts SET balance = ?, version = ? WHERE id = ? AND version = ?");
+            updateStatus = connection.prepareStatement("UPDATE bench_transactions SET status = ?, updated_at = LOCALTIMESTAMP WHERE id = ?");
+            insertCompleted = connection.prepareStatement(
+                    "INSERT INTO bench_transactions (from_account_id, to_account_id, amount, status, updated_at) VALUES (?, ?, ?, 'COMPLETED', LOCALTIMESTAMP)",
+                    Statement.RETURN_GENERATED_KEYS);
+            insertEntry = connection.prepareStatement(
+                    "INSERT INTO bench_ledger_entries (transaction_id, account_id, direction, amount, created_at) VALUES (?, ?, ?, ?, LOCALTIMESTAMP)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /**
+     * Mirrors TransactionService before the ledger: a version conflict rolls the whole transfer back.
+     * Returns whether the transfer committed.
+     */
+    @Benchmark
+    public boolean updateInPlace(Session session) throws SQLException {
+        long from = randomAccount();
+        long to = otherAccount(from);
+        BigDecimal amount = randomAmount();
+        try {
+            session.insertPending.setLong(1, from);
+            session.insertPending.setLong(2, to);
+            session.insertPending.setBigDecimal(3, amount);
+            session.insertPending.executeUpdate();
+            long transactionId = generatedId(session.insertPending);
+
+            boolean applied = adjust(session, from, amount.negate()) && adjust(session, to, amount);
+            if (!applied) {
+                session.connection.rollback();
+                return false;
+            }
+            session.updateStatus.setString(1, "COMPLETED");
+            session.updateStatus.setLong(2, transactionId);
+            session.updateStatus.executeUpdate();
+            session.connection.commit();
+            return true;
+        } catch (SQLException e) {
+            session.connection.rollback();
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean insertOnly(Session session) throws SQLException {
+        long from = randomAccount();
+        long to = otherAccount(from);
+        BigDecimal amount = randomAmount();
+        try {
+            session.insertCompleted.setLong(1, from);
+            session.insertCompleted.setLong(2, to);
+            session.insertCompleted.setBigDecimal(3, amount);
+            session.insertCompleted.executeUpdate();
+            long transactionId = generatedId(session.insertCompleted);
+
+            addEntry(session, transactionId, from, "DEBIT", amount);
+            addEntry(session, transactionId, to, "CREDIT", amount);
+            session.insertEntry.executeBatch();
+            session.connection.commit();
+            return true;
+        } catch (SQLException e) {
+            session.connection.rollback();
+            return false;
+        }
+    }
+
+    private static boolean adjust(Session session, long accountId, BigDecimal delta) throws SQLException {
+        session.selectAccount.setLong(1, accountId);
+        BigDecimal balance;
+        long version;
+        try (ResultSet rs = session.selectAccount.executeQuery()) {
+            rs.next();
+            balance = rs.getBigDecimal(1);
+            version = rs.getLong(2);
+        }
+        session.updateAccount.setBigDecimal(1, balance.add(delta));
+        session.updateAccount.setLong(2, version + 1);
+        session.updateAccount.setLong(3, accountId);
+        session.updateAccount.setLong(4, version);
+        return session.updateAccount.executeUpdate() == 1;
+    }
+
+    private static void addEntry(Session session, long transactionId, long accountId, String direction, BigDecimal amount)
+            throws SQLException {
+        session.insertEntry.setLong(1, transactionId);
+        session.insertEntry.setLong(2, accountId);
+        session.insertEntry.setString(3, direction);
+        session.insertEntry.setBigDecimal(4, amount);
+        session.insertEntry.addBatch();
+    }
+
+    private static long generatedId(PreparedStatement statement) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private long randomAccount() {
+        return 1 + ThreadLocalRandom.current().nextInt(accounts);
+    }
+
+    private long otherAccount(long from) {
+        long to = from;
+        while (to == from) {
+            to = randomAccount();
+        }
+        return to;
+    }
+
+    private static BigDecimal randomAmount() {
+        return BigDecimal.valueOf(1 + ThreadLocalRandom.current().nextInt(10000), 2);
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                System.getenv().getOrDefault("DATABASE_URL", "jdbc:postgresql://localhost:5432/mydb"),
+                System.getenv().getOrDefault("PGUSER", "myuser"),
+                System.getenv().getOrDefault("PGPASSWORD", "mypassword"));
+    }
+}
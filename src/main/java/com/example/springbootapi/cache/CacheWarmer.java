@@ -0,0 +1,159 @@
+package com.example.springbootapi.cache;
+
+import com.example.springbootapi.dto.UserResponseDTO;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import com.example.springbootapi.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the busiest accounts and their owners into the shared caches after a deploy, so the first minutes of
+ * traffic do not all fall through to PostgreSQL. Accounts are ranked by their ledger entries over the last
+ * {@code cache-warmup.lookback-days} in the daily rollups, then loaded in batches of {@code cache-warmup.batch-size}
+ * ids on {@code cache-warmup.parallelism} threads with one {@code IN} query per table and batch:
+ * <ul>
+ *   <li>account versions and owners go to {@link EntityVersionCache}, which answers conditional GETs and their
+ *   ownership check;</li>
+ *   <li>the owners go to the {@code users} cache, and their versions to {@link EntityVersionCache}.</li>
+ * </ul>
+ * Spring Boot switches readiness to ACCEPTING_TRAFFIC only after application runners return, so
+ * {@code /actuator/health} reports OUT_OF_SERVICE until the warm-up finishes or {@code cache-warmup.budget-ms}
+ * runs out; batches still running then are cancelled. Entries are only added where missing, so a warm-up never
+ * overwrites what a concurrent write has stored.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmer implements ApplicationRunner {
+
+    private final DailyAccountRollupRepository dailyAccountRollupRepository;
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+    private final EntityVersionCache entityVersionCache;
+    private final CacheManager cacheManager;
+
+    @Value("${cache-warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache-warmup.accounts:10000}")
+    private int maxAccounts;
+
+    @Value("${cache-warmup.lookback-days:7}")
+    private int lookbackDays;
+
+    @Value("${cache-warmup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cache-warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${cache-warmup.budget-ms:30000}")
+    private long budgetMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warm();
+    }
+
+    /**
+     * Returns the number of accounts warmed, which falls short of the ranked ones if the budget ran out.
+     */
+    public int warm() {
+        if (!enabled) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        List<Long> accountIds;
+        try {
+            accountIds = dailyAccountRollupRepository.findMostActiveAccountIds(
+                    LocalDate.now().minusDays(lookbackDays), maxAccounts);
+        } catch (DataAccessException e) {
+            log.warn("Cache warm-up skipped, ranking accounts failed", e);
+            return 0;
+        }
+        if (accountIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Callable<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < accountIds.size(); from += batchSize) {
+            List<Long> batch = accountIds.subList(from, Math.min(accountIds.size(), from + batchSize));
+            batches.add(() -> warmBatch(batch));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, batches.size()),
+                r -> new Thread(r, "cache-warmup"));
+        int warmed = 0;
+        int cancelled = 0;
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(budgetMillis) - (System.nanoTime() - started);
+            for (Future<Integer> batch : pool.invokeAll(batches, Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                try {
+                    warmed += batch.get();
+                } catch (CancellationException e) {
+                    cancelled++;
+                } catch (ExecutionException e) {
+                    log.warn("Cache warm-up batch failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Cache warm-up loaded {} of {} active accounts in {} ms{}", warmed, accountIds.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                cancelled > 0 ? ", " + cancelled + " batches cut off by the budget" : "");
+        return warmed;
+    }
+
+    private int warmBatch(List<Long> accountIds) {
+        Map<Long, EntityVersionCache.Entry> accounts = new HashMap<>();
+        Set<Long> ownerIds = new HashSet<>();
+        for (AccountRepository.VersionAndOwner account : accountRepository.findVersionsAndOwners(accountIds)) {
+            if (account.getVersion() != null) {
+                accounts.put(account.getId(), new EntityVersionCache.Entry(account.getVersion(), account.getOwnerId()));
+            }
+            ownerIds.add(account.getOwnerId());
+        }
+        entityVersionCache.putAllIfAbsent(EntityVersionCache.ACCOUNT, accounts);
+        if (ownerIds.isEmpty()) {
+            return accounts.size();
+        }
+
+        Cache users = cacheManager.getCache("users");
+        Map<Long, EntityVersionCache.Entry> userVersions = new HashMap<>();
+        for (UserResponseDTO user : userRepository.findDTOsByIdIn(ownerIds)) {
+            if (users != null) {
+                users.putIfAbsent(user.getId(), user);
+            }
+            if (user.getVersion() != null) {
+                userVersions.put(user.getId(), new EntityVersionCache.Entry(user.getVersion(), user.getId()));
+            }
+        }
+        entityVersionCache.putAllIfAbsent(EntityVersionCache.USER, userVersions);
+        return accounts.size();
+    }
+}
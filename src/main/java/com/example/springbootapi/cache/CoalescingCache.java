@@ -0,0 +1,157 @@
+package com.example.springbootapi.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Wraps a shared cache so that concurrent misses for the same key on this node run one load
+ * ({@code @Cacheable(sync = true)} goes through {@link #get(Object, Callable)}) instead of one per request.
+ * <p>
+ * With early refresh on, each entry is stored with its expiry time and how long it took to load, and a hit
+ * reloads it ahead of the expiry with a probability that rises as the expiry nears and with the load time
+ * ({@code -loadMillis * beta * ln(random) >= millisLeft}, as in XFetch). One reader per node then refreshes a
+ * popular entry shortly before it expires, while everyone else keeps being served the cached value, so the
+ * entry never drops out under load. Entries without a stamp (stored with early refresh off) are returned as is.
+ */
+public class CoalescingCache implements Cache {
+
+    /**
+     * Stored value with the time it expires from the underlying cache and the time its last load took.
+     */
+    record Stamped(Object value, long expiresAt, long loadMillis) implements Serializable {
+    }
+
+    private final Cache delegate;
+    private final SingleFlight<Object, Object> loads = new SingleFlight<>();
+    private final long ttlMillis;
+    private final double beta;
+    private final LongSupplier clock;
+    private final DoubleSupplier random;
+
+    private volatile long lastLoadMillis;
+
+    /**
+     * @param ttlMillis time to live of the underlying cache's entries; 0 (no expiry) turns early refresh off
+     * @param beta      how far ahead of expiry to refresh, 1 being the usual choice; 0 turns early refresh off
+     */
+    public CoalescingCache(Cache delegate, long ttlMillis, double beta) {
+        this(delegate, ttlMillis, beta, System::currentTimeMillis, () -> 1 - ThreadLocalRandom.current().nextDouble());
+    }
+
+    CoalescingCache(Cache delegate, long ttlMillis, double beta, LongSupplier clock, DoubleSupplier random) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.beta = ttlMillis > 0 ? beta : 0;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper stored = delegate.get(key);
+        return stored != null && stored.get() instanceof Stamped stamped ? new SimpleValueWrapper(stamped.value()) : stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper stored = get(key);
+        Object value = stored != null ? stored.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper stored = delegate.get(key);
+        if (stored != null) {
+            if (stored.get() instanceof Stamped stamped) {
+                return (T) (refreshDue(stamped) ? loads.load(key, () -> loadAndStore(key, valueLoader)) : stamped.value());
+            }
+            return (T) stored.get();
+        }
+        return (T) loads.load(key, () -> {
+            // another load may have stored the value between the miss above and this one starting
+            ValueWrapper loaded = get(key);
+            return loaded != null ? loaded.get() : loadAndStore(key, valueLoader);
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, stamp(value, lastLoadMillis));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, stamp(value, lastLoadMillis));
+        return existing != null && existing.get() instanceof Stamped stamped ? new SimpleValueWrapper(stamped.value()) : existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private boolean refreshDue(Stamped stamped) {
+        if (beta <= 0) {
+            return false;
+        }
+        long millisLeft = stamped.expiresAt() - clock.getAsLong();
+        return -stamped.loadMillis() * beta * Math.log(random.getAsDouble()) >= millisLeft;
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader) {
+        long started = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long loadMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        lastLoadMillis = loadMillis;
+        if (value != null) {
+            delegate.put(key, stamp(value, loadMillis));
+        }
+        return value;
+    }
+
+    private Object stamp(Object value, long loadMillis) {
+        return beta > 0 && value != null ? new Stamped(value, clock.getAsLong() + ttlMillis, loadMillis) : value;
+    }
+}
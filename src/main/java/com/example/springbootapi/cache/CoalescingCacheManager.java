@@ -0,0 +1,40 @@
+package com.example.springbootapi.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out every cache of the wrapped manager as a {@link CoalescingCache}, one wrapper per cache name.
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final long ttlMillis;
+    private final double earlyRefreshBeta;
+    private final ConcurrentHashMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, long ttlMillis, double earlyRefreshBeta) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null
+                : caches.computeIfAbsent(name, n -> new CoalescingCache(target, ttlMillis, earlyRefreshBeta));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
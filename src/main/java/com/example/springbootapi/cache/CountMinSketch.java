@@ -0,0 +1,52 @@
+package com.example.springbootapi.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Count-Min sketch over long keys: {@link #add} and {@link #estimate} never report less than the true
+ * count, and over-report by at most about {@code 2 / width} of the total added, with probability
+ * {@code 1 - 2^-depth}. Safe for concurrent use without locking; there is no removal, so owners start a fresh
+ * sketch for each window.
+ */
+public final class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Need width >= 1 and depth >= 1");
+        }
+        this.counters = new AtomicLongArray(Math.multiplyExact(width, depth));
+        this.width = width;
+        this.depth = depth;
+    }
+
+    /**
+     * Adds {@code count} occurrences of {@code key} and returns its estimated count including them.
+     */
+    public long add(long key, long count) {
+        long hash1 = BloomFilter.mix(key);
+        long hash2 = BloomFilter.mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, hash1 + row * hash2), count));
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        long hash1 = BloomFilter.mix(key);
+        long hash2 = BloomFilter.mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash1 + row * hash2)));
+        }
+        return estimate;
+    }
+
+    private int index(int row, long hash) {
+        return row * width + (int) Math.floorMod(hash, (long) width);
+    }
+}
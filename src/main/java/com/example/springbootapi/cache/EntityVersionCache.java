@@ -0,0 +1,235 @@
+package com.example.springbootapi.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Current {@code @Version} of accounts and users, shared through Redis so any node can answer a conditional GET
+ * with 304 without loading the row. Each entry also holds the owning user's id for the authorization check.
+ * <p>
+ * Writers delete the entry when the row changes and store the new version once the transaction commits.
+ * Readers only fill in missing entries ({@code SET NX}), so a reader that loaded an older version cannot
+ * overwrite a newer one. Entries expire after {@code etag.ttl-ms}, which bounds how long a lost update can
+ * linger; a Redis failure only turns lookups into misses.
+ */
+@Slf4j
+@Component
+public class EntityVersionCache {
+
+    public static final String ACCOUNT = "account";
+    public static final String USER = "user";
+
+    private static final String KEY_PREFIX = "etag:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public EntityVersionCache(StringRedisTemplate redisTemplate, @Value("${etag.ttl-ms:600000}") long ttlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofMillis(ttlMillis);
+    }
+
+    public record Entry(long version, Long ownerId) {
+    }
+
+    /**
+     * Weak, because the same version is served as JSON, CBOR or Smile.
+     */
+    public static String etag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * ETag of an account, which also covers its owner's version because the account is served with the owner's
+     * username: renaming the user changes it without touching the account row.
+     */
+    public static String etag(long version, long ownerVersion) {
+        return "W/\"" + version + "." + ownerVersion + "\"";
+    }
+
+    public Entry get(String type, Long id) {
+        try {
+            String value = redisTemplate.opsForValue().get(key(type, id));
+            return value != null ? parse(value) : null;
+        } catch (DataAccessException e) {
+            log.debug("Version lookup for {} {} failed", type, id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Bulk {@link #get} in one MGET. Ids without an entry are left out of the result, as are all of them when
+     * Redis fails.
+     */
+    public Map<Long, Entry> getAll(String type, List<Long> ids) {
+        Map<Long, Entry> entries = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return entries;
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> key(type, id)).toList());
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                if (values.get(i) != null) {
+                    entries.put(ids.get(i), parse(values.get(i)));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.debug("Version lookup for {} {}s failed", ids.size(), type, e);
+        }
+        return entries;
+    }
+
+    /**
+     * Records a version a reader has just loaded, unless a writer has already stored one.
+     */
+    public void putIfAbsent(String type, Long id, Long version, Long ownerId) {
+        if (version == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key(type, id), value(version, ownerId), ttl);
+        } catch (DataAccessException e) {
+            log.debug("Version update for {} {} failed", type, id, e);
+        }
+    }
+
+    /**
+     * Bulk {@link #putIfAbsent} in one pipelined round trip, for warming the cache.
+     */
+    public void putAllIfAbsent(String type, Map<Long, Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    entries.forEach((id, entry) -> operations.opsForValue()
+                            .setIfAbsent(key(type, id), value(entry.version(), entry.ownerId()), ttl));
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Storing {} {} versions failed", entries.size(), type, e);
+        }
+    }
+
+    /**
+     * Called when a row is written: drops the entry now and stores the new version after commit,
+     * or leaves it dropped when {@code version} is null (the row was deleted or rewritten in bulk).
+     */
+    public void changed(String type, Long id, Long version, Long ownerId) {
+        delete(List.of(key(type, id)));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (version != null) {
+                write(Map.of(key(type, id), value(version, ownerId)));
+            }
+            return;
+        }
+        pendingChanges().put(key(type, id), version == null ? null : value(version, ownerId));
+    }
+
+    /**
+     * Drops the entries of every id in the range, now and again after commit.
+     */
+    public void evictRange(String type, long fromId, long toId) {
+        List<String> keys = new ArrayList<>((int) (toId - fromId + 1));
+        for (long id = fromId; id <= toId; id++) {
+            keys.add(key(type, id));
+        }
+        delete(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<String, String> pending = pendingChanges();
+            keys.forEach(key -> pending.put(key, null));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> pendingChanges() {
+        Map<String, String> pending = (Map<String, String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, String> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    List<String> deleted = new ArrayList<>();
+                    Map<String, String> updated = new LinkedHashMap<>();
+                    changes.forEach((key, value) -> {
+                        if (value == null) {
+                            deleted.add(key);
+                        } else {
+                            updated.put(key, value);
+                        }
+                    });
+                    delete(deleted);
+                    write(updated);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EntityVersionCache.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    private void write(Map<String, String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    values.forEach((key, value) -> operations.opsForValue().set(key, value, ttl));
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Storing {} entity versions failed; they stay missing until read again", values.size(), e);
+        }
+    }
+
+    private void delete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (DataAccessException e) {
+            log.warn("Dropping {} entity versions failed; conditional GETs may be answered from them until they expire",
+                    keys.size(), e);
+        }
+    }
+
+    private static String key(String type, Long id) {
+        return KEY_PREFIX + type + ":" + id;
+    }
+
+    private static Entry parse(String value) {
+        int separator = value.indexOf(':');
+        return new Entry(Long.parseLong(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+    }
+
+    private static String value(long version, Long ownerId) {
+        return version + ":" + ownerId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.springbootapi.cache;
+
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link EntityVersionCache} in step with every JPA write of an account or user. Bulk SQL that bumps
+ * versions bypasses this listener and has to evict the affected ids itself.
+ */
+@Component
+public class EntityVersionListener {
+
+    private final EntityVersionCache entityVersionCache;
+
+    public EntityVersionListener(EntityVersionCache entityVersionCache) {
+        this.entityVersionCache = entityVersionCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void written(Object entity) {
+        if (entity instanceof Account account) {
+            entityVersionCache.changed(EntityVersionCache.ACCOUNT, account.getId(), account.getVersion(), account.getUser().getId());
+        } else if (entity instanceof User user) {
+            entityVersionCache.changed(EntityVersionCache.USER, user.getId(), user.getVersion(), user.getId());
+        }
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        if (entity instanceof Account account) {
+            entityVersionCache.changed(EntityVersionCache.ACCOUNT, account.getId(), null, null);
+        } else if (entity instanceof User user) {
+            entityVersionCache.changed(EntityVersionCache.USER, user.getId(), null, null);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.springbootapi.config;
+
+import com.example.springbootapi.cache.CoalescingCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the auto-configured cache manager so cache misses are coalesced per key and entries can be refreshed
+ * ahead of their expiry (see {@link com.example.springbootapi.cache.CoalescingCache}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache-coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheCoalescingConfig {
+
+    @Bean
+    public static BeanPostProcessor coalescingCacheManagerPostProcessor(
+            @Value("${spring.cache.redis.time-to-live:0}") long ttlMillis,
+            @Value("${cache-coalescing.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CacheManager cacheManager && !(bean instanceof CoalescingCacheManager)
+                        ? new CoalescingCacheManager(cacheManager, ttlMillis, earlyRefreshBeta)
+                        : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springbootapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How Flyway runs at startup, chosen by {@code flyway-startup.mode} at run time (so it also applies to an
+ * AOT-processed build, where {@code spring.flyway.enabled} is fixed at build time):
+ * <ul>
+ *   <li>{@code migrate}: validate, then apply pending migrations before the application starts (the default);</li>
+ *   <li>{@code deferred}: if the latest packaged migration is already applied, start without validating and
+ *   validate on a background thread instead, logging an error on a mismatch; otherwise migrate;</li>
+ *   <li>{@code none}: leave the schema alone, for deployments that migrate in a separate step and for the
+ *   class-data-sharing training run, which has no database.</li>
+ * </ul>
+ */
+@Slf4j
+@Configuration
+public class FlywayStartupConfig {
+
+    private static final Pattern VERSIONED_MIGRATION = Pattern.compile("V([0-9._]+)__.*\\.sql");
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${flyway-startup.mode:migrate}") String mode) {
+        return switch (mode) {
+            case "migrate" -> Flyway::migrate;
+            case "deferred" -> FlywayStartupConfig::migrateOrDeferValidation;
+            case "none" -> flyway -> log.info("Flyway skipped at startup (flyway-startup.mode=none)");
+            default -> throw new IllegalArgumentException("flyway-startup.mode must be one of migrate, deferred, none");
+        };
+    }
+
+    private static void migrateOrDeferValidation(Flyway flyway) {
+        MigrationVersion packaged = latestPackagedVersion(flyway);
+        MigrationVersion applied = latestAppliedVersion(flyway);
+        if (packaged == null || !packaged.equals(applied)) {
+            log.info("Schema at version {}, packaged migrations reach {}: migrating now", applied, packaged);
+            flyway.migrate();
+            return;
+        }
+        Thread validation = new Thread(() -> {
+            try {
+                flyway.validate();
+                log.info("Deferred Flyway validation passed for schema version {}", applied);
+            } catch (RuntimeException e) {
+                log.error("Deferred Flyway validation failed; the schema does not match the packaged migrations", e);
+            }
+        }, "flyway-validate");
+        validation.setDaemon(true);
+        validation.start();
+    }
+
+    /**
+     * Highest version among the versioned SQL migrations on the configured locations, found with a plain
+     * classpath listing instead of Flyway's scanner.
+     */
+    private static MigrationVersion latestPackagedVersion(Flyway flyway) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MigrationVersion latest = null;
+        try {
+            for (Location location : flyway.getConfiguration().getLocations()) {
+                if (!location.isClassPath()) {
+                    return null;
+                }
+                for (Resource resource : resolver.getResources("classpath*:" + location.getRootPath() + "/*.sql")) {
+                    Matcher matcher = VERSIONED_MIGRATION.matcher(String.valueOf(resource.getFilename()));
+                    if (matcher.matches()) {
+                        MigrationVersion version = MigrationVersion.fromVersion(matcher.group(1).replace('_', '.'));
+                        if (latest == null || version.isNewerThan(latest.getVersion())) {
+                            latest = version;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return latest;
+    }
+
+    private static MigrationVersion latestAppliedVersion(Flyway flyway) {
+        String sql = "SELECT version FROM " + flyway.getConfiguration().getTable()
+                + " WHERE success AND version IS NOT NULL ORDER BY installed_rank DESC LIMIT 1";
+        try (Connection connection = flyway.getConfiguration().getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? MigrationVersion.fromVersion(result.getString(1)) : null;
+        } catch (SQLException e) {
+            return null; // no history table yet
+        }
+    }
+}
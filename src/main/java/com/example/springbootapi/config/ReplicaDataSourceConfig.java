@@ -0,0 +1,74 @@
+package com.example.springbootapi.config;
+
+import com.example.springbootapi.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "read-replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${read-replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${read-replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${read-replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${read-replica.pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${read-replica.max-lag-ms:5000}")
+    private long maxLagMillis;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.getDriverClassName());
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMillis);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${read-replica.lag-check-interval-ms:5000}")
+    public void refreshReplicaLag() {
+        if (routingDataSource != null) {
+            routingDataSource.refreshReplicaLag();
+        }
+    }
+}
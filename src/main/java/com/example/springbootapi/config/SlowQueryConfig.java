@@ -0,0 +1,62 @@
+package com.example.springbootapi.config;
+
+import com.example.springbootapi.datasource.SlowQueryEndpoint;
+import com.example.springbootapi.datasource.SlowQueryLog;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's {@code dataSource} bean (the plain Hikari pool, or the replica router when
+ * read replicas are enabled) in a timing proxy that feeds {@link SlowQueryLog}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Value("${slow-query.threshold-ms:200}")
+    private long thresholdMillis;
+
+    @Value("${slow-query.sample-rate:0.0}")
+    private double sampleRate;
+
+    @Value("${slow-query.max-fingerprints:500}")
+    private int maxFingerprints;
+
+    @Value("${slow-query.top-n:20}")
+    private int topN;
+
+    @Bean
+    public SlowQueryLog slowQueryLog() {
+        return new SlowQueryLog(thresholdMillis, sampleRate, maxFingerprints);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog, topN);
+    }
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(slowQueryLog.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
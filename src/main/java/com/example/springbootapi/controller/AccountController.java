@@ -1,10 +1,17 @@
 package com.example.springbootapi.controller;
 
+import com.example.springbootapi.cache.EntityVersionCache;
+import com.example.springbootapi.dto.AccountAnalyticsDTO;
 import com.example.springbootapi.dto.AccountDTO;
+import com.example.springbootapi.dto.AccountIdsRequest;
 import com.example.springbootapi.dto.AccountStatementDTO;
 import com.example.springbootapi.dto.ApiResponse;
 import com.example.springbootapi.dto.CreateAccountRequest;
+import com.example.springbootapi.dto.KeysetPage;
+import com.example.springbootapi.service.AccountAnalyticsService;
 import com.example.springbootapi.service.AccountService;
+import com.example.springbootapi.service.LedgerService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -14,10 +21,13 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -25,6 +35,9 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
+    private final LedgerService ledgerService;
+    private final AccountAnalyticsService accountAnalyticsService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @PostMapping
     public ResponseEntity<AccountDTO> createAccount(@Valid @RequestBody CreateAccountRequest request){
@@ -33,15 +46,36 @@ public class AccountController {
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountDTO>> getAllAccounts() {
-        List<AccountDTO> accounts = accountService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<KeysetPage<AccountDTO>> getAllAccounts(@RequestParam(required = false) Long afterId,
+                                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(accountService.getAccounts(afterId, size));
+    }
+
+    @GetMapping("/stream")
+    public void streamAllAccounts(HttpServletResponse response) throws IOException {
+        jsonArrayStreamer.<AccountDTO>stream(response, accountService::streamAllAccounts);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AccountDTO> getAccountById(@PathVariable Long id) {
+    public ResponseEntity<AccountDTO> getAccountById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = accountService.getAccountETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         AccountDTO account = accountService.getAccountById(id);
-        return ResponseEntity.ok(account);
+        return ResponseEntity.ok()
+                .eTag(EntityVersionCache.etag(account.getVersion(), account.getOwnerVersion()))
+                .body(account);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<AccountDTO>> getAccountsByIds(@Valid @RequestBody AccountIdsRequest request) {
+        return ResponseEntity.ok(accountService.getAccountsByIds(request.getIds()));
+    }
+
+    @PostMapping("/balances")
+    public ResponseEntity<Map<Long, BigDecimal>> getBalances(@Valid @RequestBody AccountIdsRequest request) {
+        return ResponseEntity.ok(accountService.getAccountBalances(request.getIds()));
     }
 
     @GetMapping("/number/{accountNumber}")
@@ -64,9 +98,41 @@ public class AccountController {
     }
 
     @GetMapping("/{id}/balance")
-    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long id) {
-        BigDecimal balance = accountService.getAccountBalance(id);
-        return ResponseEntity.ok(balance);
+    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long id, WebRequest webRequest) {
+        String etag = accountService.getAccountETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        AccountDTO account = accountService.getAccountById(id);
+        return ResponseEntity.ok()
+                .eTag(EntityVersionCache.etag(account.getVersion(), account.getOwnerVersion()))
+                .body(account.getBalance());
+    }
+
+    @PostMapping("/{id}/rebuild-balance")
+    public ResponseEntity<AccountDTO> rebuildBalance(@PathVariable Long id) {
+        return ResponseEntity.ok(ledgerService.rebuildBalance(id));
+    }
+
+    @PostMapping("/rebuild-balances")
+    public ResponseEntity<ApiResponse> rebuildAllBalances() {
+        int corrected = ledgerService.rebuildAllBalances();
+        return ResponseEntity.ok(new ApiResponse(200, "Rebuilt balances from the ledger; " + corrected + " account(s) corrected", corrected));
+    }
+
+    @PostMapping("/rebuild-rollups")
+    public ResponseEntity<ApiResponse> rebuildRollups() {
+        int rows = accountAnalyticsService.rebuildRollups();
+        return ResponseEntity.ok(new ApiResponse(200, "Rebuilt daily rollups from the ledger; " + rows + " row(s) written", rows));
+    }
+
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<AccountAnalyticsDTO> getAccountAnalytics(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(accountAnalyticsService.getAnalytics(id, from, to, granularity));
     }
 
     @GetMapping("/{id}/statement")
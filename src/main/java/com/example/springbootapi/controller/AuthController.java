@@ -30,4 +30,12 @@ public class AuthController {
     public ResponseEntity<AuthResponse> refreshToken(@RequestBody String refreshToken){
         return ResponseEntity.ok(authService.refreshToken(refreshToken));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody String refreshToken,
+                                       @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(refreshToken, accessToken);
+        return ResponseEntity.noContent().build();
+    }
 }
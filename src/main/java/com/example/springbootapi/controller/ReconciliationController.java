@@ -0,0 +1,38 @@
+package com.example.springbootapi.controller;
+
+import com.example.springbootapi.dto.ReconciliationMismatchDTO;
+import com.example.springbootapi.dto.ReconciliationRunDTO;
+import com.example.springbootapi.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping("/runs")
+    public ResponseEntity<ReconciliationRunDTO> startRun() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.startRun());
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<ReconciliationRunDTO> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(reconciliationService.getRun(id));
+    }
+
+    @GetMapping("/runs/{id}/mismatches")
+    public ResponseEntity<Page<ReconciliationMismatchDTO>> getMismatches(
+            @PathVariable Long id,
+            @PageableDefault(size = 50, sort = "accountId", direction = Sort.Direction.ASC) Pageable pageable) {
+        return ResponseEntity.ok(reconciliationService.getMismatches(id, pageable));
+    }
+}
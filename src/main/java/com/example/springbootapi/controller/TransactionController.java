@@ -3,6 +3,7 @@ package com.example.springbootapi.controller;
 import com.example.springbootapi.dto.CreateTransactionRequest;
 import com.example.springbootapi.dto.TransactionDTO;
 import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.filter.ConsistencyTokenFilter;
 import com.example.springbootapi.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -22,11 +24,24 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final ConsistencyTokenFilter consistencyTokenFilter;
 
     @PostMapping
-    public ResponseEntity<TransactionDTO> createTransaction(@Valid @RequestBody CreateTransactionRequest request){
+    public ResponseEntity<TransactionDTO> createTransaction(
+            @Valid @RequestBody CreateTransactionRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer){
+        if (prefer != null && prefer.contains("respond-async")) {
+            TransactionDTO transaction = transactionService.submitTransaction(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/transactions/" + transaction.getId()))
+                    .header("Preference-Applied", "respond-async")
+                    .header(ConsistencyTokenFilter.HEADER, consistencyTokenFilter.issueToken())
+                    .body(transaction);
+        }
         TransactionDTO transaction = transactionService.createTransaction(request);
-        return new ResponseEntity<>(transaction, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokenFilter.issueToken())
+                .body(transaction);
     }
 
     @GetMapping
@@ -70,7 +85,9 @@ public class TransactionController {
     @PostMapping("/{id}/retry")
     public ResponseEntity<TransactionDTO> retryTransaction(@PathVariable Long id) {
         TransactionDTO transaction = transactionService.retryTransaction(id);
-        return ResponseEntity.ok(transaction);
+        return ResponseEntity.ok()
+                .header(ConsistencyTokenFilter.HEADER, consistencyTokenFilter.issueToken())
+                .body(transaction);
     }
 
     @GetMapping("/to/{toAccountId}")
@@ -1,31 +1,47 @@
 package com.example.springbootapi.controller;
+import com.example.springbootapi.dto.KeysetPage;
 import com.example.springbootapi.dto.UserRequestDTO;
 import com.example.springbootapi.dto.UserResponseDTO;
 import com.example.springbootapi.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, JsonArrayStreamer jsonArrayStreamer) {
         this.userService = userService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @GetMapping
-    public List<UserResponseDTO> getAllUsers(){
-        return userService.getAllUsers();
+    public KeysetPage<UserResponseDTO> getAllUsers(@RequestParam(required = false) Long afterId,
+                                                   @RequestParam(required = false) Integer size) {
+        return userService.getUsers(afterId, size);
+    }
+
+    @GetMapping("/stream")
+    public void streamAllUsers(HttpServletResponse response) throws IOException {
+        jsonArrayStreamer.<UserResponseDTO>stream(response, userService::streamAllUsers);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok().body(userService.getUserById(id));
+    public ResponseEntity<UserResponseDTO> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = userService.getUserETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        UserResponseDTO user = userService.getUserById(id);
+        return ResponseEntity.ok().eTag(userService.rememberETag(user)).body(user);
     }
 
     @PostMapping
@@ -0,0 +1,23 @@
+package com.example.springbootapi.datasource;
+
+/**
+ * Request-scoped flag that pins read-only work to the primary, set when a client presents a fresh consistency token.
+ */
+public final class ReadYourWritesContext {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.springbootapi.datasource;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/slowqueries[?limit=n]} lists the slowest statement fingerprints by total time;
+ * {@code DELETE} clears them.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+    private final int defaultLimit;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog, int defaultLimit) {
+        this.slowQueryLog = slowQueryLog;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries(@Nullable Integer limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMs", slowQueryLog.getThresholdMillis());
+        body.put("sampleRate", slowQueryLog.getSampleRate());
+        body.put("trackedFingerprints", slowQueryLog.trackedFingerprints());
+        body.put("untrackedSlowQueries", slowQueryLog.untrackedSlowQueries());
+        body.put("top", slowQueryLog.top(limit != null && limit > 0 ? limit : defaultLimit));
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        slowQueryLog.reset();
+    }
+}
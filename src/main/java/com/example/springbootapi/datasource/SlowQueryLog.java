@@ -0,0 +1,168 @@
+package com.example.springbootapi.datasource;
+
+import com.example.springbootapi.filter.RequestIdFilter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces show-sql: only statements at or above the threshold, plus an optional random sample of the rest,
+ * are written to the {@code sql.slow} logger (asynchronous, see logback-spring.xml) with their repository
+ * method and request id. Bind values are never logged.
+ * Slow statements are also aggregated by fingerprint for the {@code slowqueries} actuator endpoint.
+ */
+public class SlowQueryLog implements QueryExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger("sql.slow");
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_FINGERPRINT_LENGTH = 1000;
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final int maxFingerprints;
+
+    private final Map<String, Stats> statsByFingerprint = new ConcurrentHashMap<>();
+    private final LongAdder untrackedSlowQueries = new LongAdder();
+
+    public SlowQueryLog(long thresholdMillis, double sampleRate, int maxFingerprints) {
+        this.thresholdMillis = thresholdMillis;
+        this.sampleRate = sampleRate;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        boolean slow = elapsed >= thresholdMillis;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+
+        String sql = sql(queryInfoList);
+        String repositoryMethod = RepositoryMethodTracker.current();
+        if (slow) {
+            record(fingerprint(sql), elapsed, repositoryMethod);
+        }
+        if (log.isInfoEnabled()) {
+            log.info("{} query {}ms repository={} requestId={} batch={} success={} sql={}",
+                    slow ? "slow" : "sampled", elapsed,
+                    repositoryMethod != null ? repositoryMethod : "-",
+                    requestIdOrDash(), execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.isSuccess(), sql);
+        }
+    }
+
+    /**
+     * Slow-query fingerprints ordered by total time spent, highest first.
+     */
+    public List<FingerprintStats> top(int limit) {
+        return statsByFingerprint.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(FingerprintStats::totalMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public int trackedFingerprints() {
+        return statsByFingerprint.size();
+    }
+
+    public long untrackedSlowQueries() {
+        return untrackedSlowQueries.sum();
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void reset() {
+        statsByFingerprint.clear();
+        untrackedSlowQueries.reset();
+    }
+
+    /**
+     * Collapses literals and IN lists so the same statement shape maps to one fingerprint.
+     */
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase();
+        return normalized.length() > MAX_FINGERPRINT_LENGTH ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) : normalized;
+    }
+
+    private void record(String fingerprint, long elapsed, String repositoryMethod) {
+        Stats stats = statsByFingerprint.get(fingerprint);
+        if (stats == null) {
+            if (statsByFingerprint.size() >= maxFingerprints) {
+                untrackedSlowQueries.increment();
+                return;
+            }
+            stats = statsByFingerprint.computeIfAbsent(fingerprint, f -> new Stats());
+        }
+        stats.count.increment();
+        stats.totalMs.add(elapsed);
+        stats.maxMs.accumulate(elapsed);
+        if (repositoryMethod != null) {
+            stats.lastRepositoryMethod = repositoryMethod;
+        }
+    }
+
+    private static String sql(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) {
+            return queryInfoList.get(0).getQuery();
+        }
+        StringBuilder sql = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (!sql.isEmpty()) {
+                sql.append("; ");
+            }
+            sql.append(queryInfo.getQuery());
+        }
+        return sql.toString();
+    }
+
+    private static String requestIdOrDash() {
+        String requestId = MDC.get(RequestIdFilter.MDC_KEY);
+        return requestId != null ? requestId : "-";
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Math::max, 0);
+        private volatile String lastRepositoryMethod;
+
+        private FingerprintStats snapshot(String fingerprint) {
+            long n = count.sum();
+            long total = totalMs.sum();
+            return new FingerprintStats(fingerprint, n, total, maxMs.get(), n == 0 ? 0 : total / n, lastRepositoryMethod);
+        }
+    }
+
+    public record FingerprintStats(String fingerprint, long count, long totalMs, long maxMs, long meanMs,
+                                   String lastRepositoryMethod) {
+    }
+}
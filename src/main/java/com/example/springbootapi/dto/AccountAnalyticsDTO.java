@@ -0,0 +1,25 @@
+package com.example.springbootapi.dto;
+
+import com.example.springbootapi.enums.Granularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountAnalyticsDTO {
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private Granularity granularity;
+    private BigDecimal totalInflow;
+    private BigDecimal totalOutflow;
+    private List<FlowPeriodDTO> periods;
+}
@@ -1,5 +1,6 @@
 package com.example.springbootapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,10 @@ public class AccountDTO {
     private String username;
     private LocalDate createdAt;
     private LocalDate updatedAt;
+
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private Long ownerVersion;
 }
@@ -0,0 +1,18 @@
+package com.example.springbootapi.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountIdsRequest {
+
+    @NotEmpty(message = "At least one account ID is required")
+    private List<@NotNull(message = "Account IDs must not be null") Long> ids;
+}
@@ -2,6 +2,7 @@ package com.example.springbootapi.dto;
 
 import com.example.springbootapi.enums.TransactionType;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,6 +20,7 @@ public class CreateTransactionRequest {
 
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0.01")
+    @Digits(integer = 15, fraction = 2, message = "Amount must have at most 15 digits and 2 decimal places")
     private BigDecimal amount;
 
     @NotNull(message = "Transaction type is required")
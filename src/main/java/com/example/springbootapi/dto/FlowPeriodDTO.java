@@ -0,0 +1,22 @@
+package com.example.springbootapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FlowPeriodDTO {
+    private LocalDate periodStart;
+    private BigDecimal inflow;
+    private BigDecimal outflow;
+    private BigDecimal net;
+    private long inflowCount;
+    private long outflowCount;
+}
@@ -0,0 +1,30 @@
+package com.example.springbootapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a listing ordered by id. Pass {@code nextAfterId} back as {@code afterId} to get the next page;
+ * it is null on the last page.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    private Long nextAfterId;
+
+    /**
+     * Wraps a page fetched with a limit of {@code size}; a full page may have a successor.
+     */
+    public static <T> KeysetPage<T> of(List<T> content, int size, Function<T, Long> idOf) {
+        Long nextAfterId = content.size() == size ? idOf.apply(content.get(content.size() - 1)) : null;
+        return new KeysetPage<>(content, nextAfterId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.springbootapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationMismatchDTO {
+    private Long id;
+    private Long runId;
+    private Long accountId;
+    private BigDecimal storedBalance;
+    private BigDecimal expectedBalance;
+    private BigDecimal difference;
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,26 @@
+package com.example.springbootapi.dto;
+
+import com.example.springbootapi.enums.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationRunDTO {
+    private Long id;
+    private ReconciliationStatus status;
+    private String triggeredBy;
+    private int rangesTotal;
+    private int rangesDone;
+    private long accountsChecked;
+    private long mismatches;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -23,6 +23,8 @@ public class TransactionDTO {
     private BigDecimal amount;
     private TransactionType type;
     private TransactionStatus status;
+    private int attempts;
+    private LocalDateTime nextRetryAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
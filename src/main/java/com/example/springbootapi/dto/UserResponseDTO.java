@@ -1,16 +1,22 @@
 package com.example.springbootapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class UserResponseDTO {
+public class UserResponseDTO implements Serializable {
     private Long id;
     private String username;
     private String email;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -1,5 +1,6 @@
 package com.example.springbootapi.entity;
 
+import com.example.springbootapi.cache.EntityVersionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @NoArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityVersionListener.class})
 public class Account {
     @Id
     @GeneratedValue( strategy = GenerationType.IDENTITY)
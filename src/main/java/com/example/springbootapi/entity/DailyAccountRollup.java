@@ -0,0 +1,53 @@
+package com.example.springbootapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Inflow and outflow of one account on one day. Maintained only by the set-based upserts in
+ * {@link com.example.springbootapi.repository.DailyAccountRollupRepository}.
+ */
+@Entity
+@Immutable
+@Data
+@Builder
+@Table(name = "daily_account_rollups")
+@IdClass(DailyAccountRollup.Key.class)
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailyAccountRollup {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private BigDecimal inflow;
+
+    @Column(nullable = false)
+    private BigDecimal outflow;
+
+    @Column(nullable = false)
+    private int inflowCount;
+
+    @Column(nullable = false)
+    private int outflowCount;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.springbootapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An account whose stored balance differed from the sum of its COMPLETED transactions during a run.
+ * Written only by the set-based insert in {@link com.example.springbootapi.repository.ReconciliationMismatchRepository}.
+ */
+@Entity
+@Immutable
+@Data
+@Builder
+@Table(name = "reconciliation_mismatches")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private BigDecimal storedBalance;
+
+    @Column(nullable = false)
+    private BigDecimal expectedBalance;
+
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,56 @@
+package com.example.springbootapi.entity;
+
+import com.example.springbootapi.enums.ReconciliationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass of the balance reconciliation job. Progress columns are advanced in place by the range
+ * workers, so {@code updatedAt} doubles as a heartbeat.
+ */
+@Entity
+@Data
+@Builder
+@Table(name = "reconciliation_runs")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReconciliationStatus status;
+
+    @Column(nullable = false, updatable = false)
+    private String triggeredBy;
+
+    @Column(nullable = false)
+    private int rangesTotal;
+
+    @Column(nullable = false)
+    private int rangesDone;
+
+    @Column(nullable = false)
+    private long accountsChecked;
+
+    @Column(nullable = false)
+    private long mismatches;
+
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -46,6 +46,12 @@ public class Transaction {
     @Column(nullable = false)
     private TransactionStatus status;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    private LocalDateTime nextRetryAt;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
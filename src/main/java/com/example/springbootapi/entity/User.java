@@ -1,5 +1,6 @@
 package com.example.springbootapi.entity;
 
+import com.example.springbootapi.cache.EntityVersionListener;
 import com.example.springbootapi.enums.Role;
 import jakarta.persistence.*;
 import lombok.*;
@@ -20,7 +21,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EntityVersionListener.class})
 @EqualsAndHashCode(exclude = {"accounts"})
 public class User implements UserDetails{
     @Id
@@ -36,6 +37,9 @@ public class User implements UserDetails{
     @Column(nullable = true)
     private String email;
 
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
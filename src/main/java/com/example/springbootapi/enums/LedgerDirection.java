@@ -0,0 +1,6 @@
+package com.example.springbootapi.enums;
+
+public enum LedgerDirection {
+    DEBIT,
+    CREDIT
+}
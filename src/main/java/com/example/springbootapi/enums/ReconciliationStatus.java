@@ -0,0 +1,7 @@
+package com.example.springbootapi.enums;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
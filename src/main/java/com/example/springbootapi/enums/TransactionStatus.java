@@ -1,6 +1,7 @@
 package com.example.springbootapi.enums;
 
 public enum TransactionStatus {
+    QUEUED,
     PENDING,
     COMPLETED,
     FAILED
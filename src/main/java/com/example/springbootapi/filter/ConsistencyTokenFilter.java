@@ -0,0 +1,102 @@
+package com.example.springbootapi.filter;
+
+import com.example.springbootapi.datasource.ReadYourWritesContext;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.function.LongSupplier;
+
+/**
+ * Pins reads to the primary while a client's consistency token (issued after a write) is still inside the window.
+ * Tokens are {@code issuedAtMillis.signature}, signed with HMAC-SHA256 under the JWT secret, so a client cannot
+ * mint its own; a token issued more than {@code read-replica.consistency-token-max-skew-ms} in the future is
+ * ignored as well, so no token pins reads for longer than the window.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SIGNED_PREFIX = "consistency:";
+
+    private final SecretKeySpec key;
+    private final long windowMillis;
+    private final long maxSkewMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ConsistencyTokenFilter(@Value("${jwt.secret}") String secret,
+                                  @Value("${read-replica.read-your-writes-window-ms:5000}") long windowMillis,
+                                  @Value("${read-replica.consistency-token-max-skew-ms:1000}") long maxSkewMillis) {
+        this(Decoders.BASE64.decode(secret), windowMillis, maxSkewMillis, System::currentTimeMillis);
+    }
+
+    ConsistencyTokenFilter(byte[] secret, long windowMillis, long maxSkewMillis, LongSupplier clock) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.windowMillis = windowMillis;
+        this.maxSkewMillis = maxSkewMillis;
+        this.clock = clock;
+    }
+
+    public String issueToken() {
+        String issuedAt = String.valueOf(clock.getAsLong());
+        return issuedAt + "." + sign(issuedAt);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(HEADER);
+        if (token != null && isFresh(token.trim())) {
+            ReadYourWritesContext.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private boolean isFresh(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        String issuedAt = token.substring(0, separator);
+        byte[] expected = sign(issuedAt).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        try {
+            long age = clock.getAsLong() - Long.parseLong(issuedAt);
+            return age < windowMillis && age >= -maxSkewMillis;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String sign(String issuedAt) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal((SIGNED_PREFIX + issuedAt).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
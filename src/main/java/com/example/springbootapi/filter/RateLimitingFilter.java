@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 import java.util.concurrent.TimeUnit;
 
 @Component
-@Order(Ordered.HIGHEST_PRECEDENCE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class RateLimitingFilter extends OncePerRequestFilter {
 
     private final StringRedisTemplate redisTemplate;
@@ -72,7 +72,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         int maxRequests = limit[0];
         int windowSeconds = limit[1];
 
-        String key = "rate_limit:" + method + ":" + path + ":" + ip;
+        String key = rateLimitKey(method, path, ip);
 
         Long count = redisTemplate.opsForValue().increment(key);
         if (count != null && count == 1) {
@@ -104,7 +104,11 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private int[] resolveLimit(String method, String path) {
+    static String rateLimitKey(String method, String path, String ip) {
+        return "rate_limit:" + method + ":" + path + ":" + ip;
+    }
+
+    int[] resolveLimit(String method, String path) {
         if ("POST".equalsIgnoreCase(method)) {
             if (path.equals("/api/auth/login")) {
                 return new int[]{loginMaxRequests, loginWindowSeconds};
@@ -119,7 +123,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         return new int[]{defaultMaxRequests, defaultWindowSeconds};
     }
 
-    private String extractClientIp(HttpServletRequest request) {
+    String extractClientIp(HttpServletRequest request) {
         String xff = request.getHeader("X-Forwarded-For");
         if (xff != null && !xff.isBlank()) {
             return xff.split(",")[0].trim();
@@ -20,5 +20,6 @@ public interface AccountMapper {
 
     @Mapping(source = "user.id", target = "userId")
     @Mapping(source = "user.username", target = "username")
+    @Mapping(source = "user.version", target = "ownerVersion")
     AccountDTO toDTO(Account account);
 }
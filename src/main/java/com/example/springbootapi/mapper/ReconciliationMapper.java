@@ -0,0 +1,19 @@
+package com.example.springbootapi.mapper;
+
+import com.example.springbootapi.dto.ReconciliationMismatchDTO;
+import com.example.springbootapi.dto.ReconciliationRunDTO;
+import com.example.springbootapi.entity.ReconciliationMismatch;
+import com.example.springbootapi.entity.ReconciliationRun;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(componentModel = "spring")
+public interface ReconciliationMapper {
+    ReconciliationMapper INSTANCE = Mappers.getMapper(ReconciliationMapper.class);
+
+    ReconciliationRunDTO toDTO(ReconciliationRun run);
+
+    @Mapping(target = "difference", expression = "java(mismatch.getStoredBalance().subtract(mismatch.getExpectedBalance()))")
+    ReconciliationMismatchDTO toDTO(ReconciliationMismatch mismatch);
+}
@@ -0,0 +1,26 @@
+package com.example.springbootapi.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/hotaccounts[?limit=n]}: accounts currently flagged hot, and the top accounts by writes and by
+ * optimistic lock conflicts (with per-second rates) in the current and the last complete window.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountEndpoint {
+
+    private final HotAccountTracker hotAccountTracker;
+
+    @ReadOperation
+    public Map<String, Object> hotAccounts(@Nullable Integer limit) {
+        return hotAccountTracker.report(limit != null && limit > 0 ? limit : Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.springbootapi.metrics;
+
+/**
+ * Published by {@link HotAccountTracker} when an account becomes hot (its writes or optimistic lock conflicts in
+ * the current window reach the configured threshold) and again with {@code hot = false} once a whole window passes
+ * below both thresholds. Listeners run on the thread that recorded the write, usually inside its database
+ * transaction, so they should only note the account (for routing it to a serialized or batched path, say).
+ */
+public record HotAccountEvent(Long accountId, boolean hot, long writes, long conflicts) {
+}
@@ -0,0 +1,275 @@
+package com.example.springbootapi.metrics;
+
+import com.example.springbootapi.cache.CountMinSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Finds the accounts with the most balance writes and optimistic lock conflicts per
+ * {@code metrics.hot-account.window-ms}, in memory bounded by the sketch size rather than the number of accounts.
+ * Each window counts writes and conflicts per account in a Count-Min sketch and keeps the
+ * {@code metrics.hot-account.top-k} highest estimates of each in a min-heap; a write only takes the heap's lock
+ * when its estimate beats the smallest one held. Estimates can run high by a small share of the window's total,
+ * never low.
+ * <p>
+ * An account whose writes or conflicts in the current window reach {@code metrics.hot-account.write-threshold}
+ * or {@code metrics.hot-account.conflict-threshold} (0 = not checked) is announced with a {@link HotAccountEvent}
+ * straight away, and announced as cooled once a window ends with it below both. Counts are per node.
+ */
+@Component
+public class HotAccountTracker {
+
+    public record HotAccount(Long accountId, long writes, double writesPerSecond, long conflicts,
+                             double conflictsPerSecond) {
+    }
+
+    private final ApplicationEventPublisher events;
+    private final LongSupplier clock;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final int topK;
+    private final long writeThreshold;
+    private final long conflictThreshold;
+    private final long windowMillis;
+    private final Set<Long> hot = ConcurrentHashMap.newKeySet();
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    @Autowired
+    public HotAccountTracker(ApplicationEventPublisher events,
+                             @Value("${metrics.hot-account.sketch-width:2048}") int sketchWidth,
+                             @Value("${metrics.hot-account.sketch-depth:4}") int sketchDepth,
+                             @Value("${metrics.hot-account.top-k:20}") int topK,
+                             @Value("${metrics.hot-account.write-threshold:1000}") long writeThreshold,
+                             @Value("${metrics.hot-account.conflict-threshold:5}") long conflictThreshold,
+                             @Value("${metrics.hot-account.window-ms:60000}") long windowMillis) {
+        this(events, sketchWidth, sketchDepth, topK, writeThreshold, conflictThreshold, windowMillis,
+                System::currentTimeMillis);
+    }
+
+    HotAccountTracker(ApplicationEventPublisher events, int sketchWidth, int sketchDepth, int topK,
+                      long writeThreshold, long conflictThreshold, long windowMillis, LongSupplier clock) {
+        if (topK < 1 || windowMillis < 1) {
+            throw new IllegalArgumentException("metrics.hot-account.top-k and window-ms must be at least 1");
+        }
+        this.events = events;
+        this.clock = clock;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.topK = topK;
+        this.writeThreshold = writeThreshold;
+        this.conflictThreshold = conflictThreshold;
+        this.windowMillis = windowMillis;
+        this.current = new Window(clock.getAsLong());
+    }
+
+    /**
+     * Counts a balance write (an attempt, whether it commits or not) on each of the accounts.
+     */
+    public void recordWrite(Long fromAccountId, Long toAccountId) {
+        Window window = current;
+        if (fromAccountId != null) {
+            recordWrite(window, fromAccountId);
+        }
+        if (toAccountId != null) {
+            recordWrite(window, toAccountId);
+        }
+    }
+
+    public void recordConflict(Long fromAccountId, Long toAccountId) {
+        Window window = current;
+        if (fromAccountId != null) {
+            recordConflict(window, fromAccountId);
+        }
+        if (toAccountId != null) {
+            recordConflict(window, toAccountId);
+        }
+    }
+
+    /**
+     * Accounts currently announced as hot.
+     */
+    public Set<Long> hotAccounts() {
+        return new TreeSet<>(hot);
+    }
+
+    /**
+     * Top accounts by conflicts in the last complete window, or an empty list before the first window ends.
+     */
+    public List<HotAccount> lastWindowTopConflicts() {
+        Window window = previous;
+        return window != null ? window.top(window.conflictHeap, topK, windowMillis) : List.of();
+    }
+
+    public long getConflictThreshold() {
+        return conflictThreshold;
+    }
+
+    /**
+     * Starts a new window and announces the hot accounts that stayed below both thresholds in the one just ended.
+     */
+    @Scheduled(initialDelayString = "${metrics.hot-account.window-ms:60000}", fixedRateString = "${metrics.hot-account.window-ms:60000}")
+    public void roll() {
+        Window finished = current;
+        Window next = new Window(clock.getAsLong());
+        current = next;
+        previous = finished;
+        for (Iterator<Long> it = hot.iterator(); it.hasNext(); ) {
+            Long accountId = it.next();
+            long writes = finished.writes.estimate(accountId);
+            long conflicts = finished.conflicts.estimate(accountId);
+            if (!isHot(writes, conflicts) && !isHot(next.writes.estimate(accountId), next.conflicts.estimate(accountId))) {
+                it.remove();
+                events.publishEvent(new HotAccountEvent(accountId, false, writes, conflicts));
+            }
+        }
+    }
+
+    /**
+     * Thresholds, hot accounts and the top {@code limit} accounts by writes and by conflicts in the current and
+     * the last complete window.
+     */
+    public Map<String, Object> report(int limit) {
+        int shown = Math.max(1, Math.min(limit, topK));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("windowMs", windowMillis);
+        body.put("writeThreshold", writeThreshold);
+        body.put("conflictThreshold", conflictThreshold);
+        body.put("hotAccounts", hotAccounts());
+        Window window = current;
+        body.put("currentWindow", window.report(shown, Math.max(1, clock.getAsLong() - window.startedAt)));
+        Window last = previous;
+        body.put("lastWindow", last != null ? last.report(shown, windowMillis) : null);
+        return body;
+    }
+
+    private void recordWrite(Window window, Long accountId) {
+        long writes = window.writes.add(accountId, 1);
+        window.writeHeap.offer(accountId, writes);
+        if (writeThreshold > 0 && writes >= writeThreshold) {
+            markHot(window, accountId);
+        }
+    }
+
+    private void recordConflict(Window window, Long accountId) {
+        long conflicts = window.conflicts.add(accountId, 1);
+        window.conflictHeap.offer(accountId, conflicts);
+        if (conflictThreshold > 0 && conflicts >= conflictThreshold) {
+            markHot(window, accountId);
+        }
+    }
+
+    private void markHot(Window window, Long accountId) {
+        if (hot.add(accountId)) {
+            events.publishEvent(new HotAccountEvent(accountId, true,
+                    window.writes.estimate(accountId), window.conflicts.estimate(accountId)));
+        }
+    }
+
+    private boolean isHot(long writes, long conflicts) {
+        return (writeThreshold > 0 && writes >= writeThreshold) || (conflictThreshold > 0 && conflicts >= conflictThreshold);
+    }
+
+    private final class Window {
+        final long startedAt;
+        final CountMinSketch writes = new CountMinSketch(sketchWidth, sketchDepth);
+        final CountMinSketch conflicts = new CountMinSketch(sketchWidth, sketchDepth);
+        final TopK writeHeap = new TopK(topK);
+        final TopK conflictHeap = new TopK(topK);
+
+        Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        Map<String, Object> report(int limit, long elapsedMillis) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("startedAt", Instant.ofEpochMilli(startedAt));
+            body.put("byWrites", top(writeHeap, limit, elapsedMillis));
+            body.put("byConflicts", top(conflictHeap, limit, elapsedMillis));
+            return body;
+        }
+
+        List<HotAccount> top(TopK heap, int limit, long elapsedMillis) {
+            double seconds = elapsedMillis / 1000.0;
+            List<HotAccount> top = new ArrayList<>();
+            for (Long accountId : heap.descending()) {
+                if (top.size() == limit) {
+                    break;
+                }
+                long accountWrites = writes.estimate(accountId);
+                long accountConflicts = conflicts.estimate(accountId);
+                top.add(new HotAccount(accountId, accountWrites, accountWrites / seconds,
+                        accountConflicts, accountConflicts / seconds));
+            }
+            return top;
+        }
+    }
+
+    /**
+     * The {@code capacity} keys with the highest counts offered, as a min-heap plus an index of the keys held.
+     */
+    static final class TopK {
+        private record Entry(long key, long count) {
+        }
+
+        private final int capacity;
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.comparingLong(Entry::count));
+        private final Map<Long, Entry> held = new HashMap<>();
+        private volatile long floor;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(long key, long count) {
+            if (count <= floor) {
+                return; // cannot enter a full heap, or is already held at this count
+            }
+            synchronized (this) {
+                Entry existing = held.get(key);
+                if (existing != null) {
+                    if (count <= existing.count()) {
+                        return;
+                    }
+                    heap.remove(existing);
+                } else if (heap.size() == capacity) {
+                    if (count <= heap.peek().count()) {
+                        return;
+                    }
+                    held.remove(heap.poll().key());
+                }
+                Entry entry = new Entry(key, count);
+                heap.add(entry);
+                held.put(key, entry);
+                if (heap.size() == capacity) {
+                    floor = heap.peek().count();
+                }
+            }
+        }
+
+        synchronized List<Long> descending() {
+            return heap.stream()
+                    .sorted(Comparator.comparingLong(Entry::count).reversed())
+                    .map(Entry::key)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.springbootapi.metrics;
+
+import com.example.springbootapi.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/reconciliation}: ranges done, accounts checked, mismatches and accounts/second
+ * for the running (or most recent) balance reconciliation.
+ */
+@Component
+@Endpoint(id = "reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationEndpoint {
+
+    private final ReconciliationService reconciliationService;
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return reconciliationService.progress();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.springbootapi.metrics;
+
+import com.example.springbootapi.enums.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage and outcome timers for the transaction pipeline.
+ * All meters are registered up front and looked up by enum ordinal, so recording never allocates tags.
+ * Per-account writes and conflicts are counted by {@link HotAccountTracker}.
+ */
+@Component
+public class TransactionMetrics {
+
+    public enum Stage { VALIDATION, ACCOUNT_LOAD, PENDING_INSERT, BALANCE_UPDATE, FINAL_SAVE }
+
+    public enum Outcome { COMPLETED, FAILED, CONFLICT }
+
+    private final Timer[][] stageTimers = new Timer[Stage.values().length][TransactionType.values().length];
+    private final Timer[][] outcomeTimers = new Timer[Outcome.values().length][TransactionType.values().length];
+    private final Counter conflictCounter;
+    private final HotAccountTracker hotAccountTracker;
+
+    public TransactionMetrics(MeterRegistry registry, HotAccountTracker hotAccountTracker) {
+        this.hotAccountTracker = hotAccountTracker;
+        for (TransactionType type : TransactionType.values()) {
+            String typeTag = type.name().toLowerCase();
+            for (Stage stage : Stage.values()) {
+                stageTimers[stage.ordinal()][type.ordinal()] = Timer.builder("transaction.stage")
+                        .description("Time spent in each stage of createTransaction")
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("type", typeTag)
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+            for (Outcome outcome : Outcome.values()) {
+                outcomeTimers[outcome.ordinal()][type.ordinal()] = Timer.builder("transaction.duration")
+                        .description("End-to-end createTransaction time by outcome")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .tag("type", typeTag)
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+        conflictCounter = Counter.builder("transaction.conflicts")
+                .description("Optimistic lock conflicts on account balance updates")
+                .register(registry);
+        Gauge.builder("transaction.conflicts.hot_accounts", hotAccountTracker, TransactionMetrics::hotAccounts)
+                .description("Accounts at or above the conflict threshold in the last window (at most top-k)")
+                .register(registry);
+        Gauge.builder("transaction.conflicts.max_per_account", hotAccountTracker, TransactionMetrics::maxConflictsPerAccount)
+                .description("Highest per-account conflict count in the last window")
+                .register(registry);
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time since {@code stageStart} and returns the current time so stages can be chained.
+     */
+    public long recordStage(Stage stage, TransactionType type, long stageStart) {
+        long now = System.nanoTime();
+        stageTimers[stage.ordinal()][type.ordinal()].record(now - stageStart, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Records the end-to-end outcome once the surrounding transaction completes. {@code outcome} is CONFLICT when
+     * the @Version check failed in flight; a rollback at commit here means it failed at commit instead, which is
+     * recorded as a CONFLICT too.
+     */
+    public void recordOutcome(TransactionType type, Outcome outcome, long started, Long fromAccountId, Long toAccountId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(outcome, type, started);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completionStatus) {
+                if (completionStatus == STATUS_ROLLED_BACK) {
+                    recordConflict(fromAccountId, toAccountId);
+                    record(Outcome.CONFLICT, type, started);
+                } else {
+                    record(outcome, type, started);
+                }
+            }
+        });
+    }
+
+    /**
+     * Counts a balance write attempt on the accounts for hot-account detection.
+     */
+    public void recordWrite(Long fromAccountId, Long toAccountId) {
+        hotAccountTracker.recordWrite(fromAccountId, toAccountId);
+    }
+
+    public void recordConflict(Long fromAccountId, Long toAccountId) {
+        conflictCounter.increment();
+        hotAccountTracker.recordConflict(fromAccountId, toAccountId);
+    }
+
+    private void record(Outcome outcome, TransactionType type, long started) {
+        outcomeTimers[outcome.ordinal()][type.ordinal()].record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static double hotAccounts(HotAccountTracker tracker) {
+        long threshold = tracker.getConflictThreshold();
+        return threshold > 0
+                ? tracker.lastWindowTopConflicts().stream().filter(a -> a.conflicts() >= threshold).count()
+                : 0;
+    }
+
+    private static double maxConflictsPerAccount(HotAccountTracker tracker) {
+        List<HotAccountTracker.HotAccount> top = tracker.lastWindowTopConflicts();
+        return top.isEmpty() ? 0 : top.get(0).conflicts();
+    }
+}
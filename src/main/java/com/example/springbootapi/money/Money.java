@@ -0,0 +1,64 @@
+package com.example.springbootapi.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents, for arithmetic that runs many times per request (sums over
+ * rollups, balance checks, per-account counters). Unlike {@link BigDecimal} the value fits in a register, so
+ * short-lived instances are usually optimized away; in loops, accumulate {@link #cents()} in a {@code long}
+ * instead (see MoneyBenchmark). Convert with {@link #of} where amounts come in and {@link #toBigDecimal} where
+ * they go out to entities and DTOs, which keep the {@code DECIMAL(19, 2)} representation of the schema.
+ * <p>
+ * Arithmetic throws {@link ArithmeticException} on overflow instead of wrapping. A {@code long} holds about
+ * ±92 quadrillion, a little less than the largest {@code DECIMAL(19, 2)}; {@link #of} rejects anything beyond it.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    /**
+     * Exact conversion; amounts with a non-zero third decimal place are rejected with
+     * {@link IllegalArgumentException}, amounts outside the range of cents with {@link ArithmeticException}.
+     */
+    public static Money of(BigDecimal amount) {
+        BigDecimal cents;
+        try {
+            // scale 0 keeps longValueExact() on its allocation-free path
+            cents = amount.setScale(2, RoundingMode.UNNECESSARY).scaleByPowerOfTen(2);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount has more than 2 decimal places: " + amount);
+        }
+        return new Money(cents.longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -1,15 +1,82 @@
 package com.example.springbootapi.repository;
 
+import com.example.springbootapi.dto.AccountDTO;
 import com.example.springbootapi.entity.Account;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     List<Account> findByUserId(Long userId);
     boolean existsByAccountNumber(String accountNumber);
+
+    long countByIdBetween(Long fromId, Long toId);
+
+    @Query("SELECT MIN(a.id) FROM Account a")
+    Long findMinId();
+
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Long findMaxId();
+
+    @Query(value = "SELECT id FROM accounts WHERE id BETWEEN :fromId AND :toId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT a.id AS id, a.version AS version, a.user.id AS ownerId FROM Account a WHERE a.id IN :ids")
+    List<VersionAndOwner> findVersionsAndOwners(@Param("ids") Collection<Long> ids);
+
+    String DTO_SELECT = "SELECT new com.example.springbootapi.dto.AccountDTO(a.id, a.accountNumber, a.balance, u.id, "
+            + "u.username, cast(a.createdAt as LocalDate), cast(a.updatedAt as LocalDate), a.version, u.version) "
+            + "FROM Account a JOIN a.user u ";
+
+    /**
+     * Read-only transaction of its own, for callers that run outside a service transaction.
+     */
+    @Transactional(readOnly = true)
+    @Query(DTO_SELECT + "WHERE a.id = :id")
+    Optional<AccountDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Read-only transaction of its own, like {@link #findDTOById}. Ids that do not exist are left out.
+     */
+    @Transactional(readOnly = true)
+    @Query(DTO_SELECT + "WHERE a.id IN :ids")
+    List<AccountDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE a.id > :afterId ORDER BY a.id")
+    List<AccountDTO> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Every account as a DTO, read through a server-side cursor. The caller must close the stream
+     * inside a transaction.
+     */
+    @Query(DTO_SELECT + "ORDER BY a.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<AccountDTO> streamAll();
+
+    /**
+     * Every account number, read through a server-side cursor. The caller must close the stream inside a
+     * transaction.
+     */
+    @Query("SELECT a.accountNumber FROM Account a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAccountNumbers();
+
+    interface VersionAndOwner {
+        Long getId();
+        Long getVersion();
+        Long getOwnerId();
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.springbootapi.repository;
+
+import com.example.springbootapi.entity.DailyAccountRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyAccountRollupRepository extends JpaRepository<DailyAccountRollup, DailyAccountRollup.Key> {
+
+    /**
+     * Adds one ledger entry to the account's row for the day. Runs in the posting transaction.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_account_rollups (account_id, day, inflow, outflow, inflow_count, outflow_count)
+        VALUES (:accountId, :day, :inflow, :outflow, :inflowCount, :outflowCount)
+        ON CONFLICT (account_id, day) DO UPDATE SET
+            inflow = daily_account_rollups.inflow + EXCLUDED.inflow,
+            outflow = daily_account_rollups.outflow + EXCLUDED.outflow,
+            inflow_count = daily_account_rollups.inflow_count + EXCLUDED.inflow_count,
+            outflow_count = daily_account_rollups.outflow_count + EXCLUDED.outflow_count
+    """, nativeQuery = true)
+    int addFlows(@Param("accountId") Long accountId,
+                 @Param("day") LocalDate day,
+                 @Param("inflow") BigDecimal inflow,
+                 @Param("outflow") BigDecimal outflow,
+                 @Param("inflowCount") int inflowCount,
+                 @Param("outflowCount") int outflowCount);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_account_rollups WHERE account_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteAccountRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recomputes the rows of every account in the id range from ledger_entries. The caller holds the
+     * account row locks, so no posting for these accounts can commit in between.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_account_rollups (account_id, day, inflow, outflow, inflow_count, outflow_count)
+        SELECT account_id, CAST(created_at AS DATE),
+               SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE 0 END),
+               SUM(CASE WHEN direction = 'DEBIT' THEN amount ELSE 0 END),
+               COUNT(*) FILTER (WHERE direction = 'CREDIT'),
+               COUNT(*) FILTER (WHERE direction = 'DEBIT')
+        FROM ledger_entries
+        WHERE account_id BETWEEN :fromId AND :toId
+        GROUP BY account_id, CAST(created_at AS DATE)
+    """, nativeQuery = true)
+    int insertFromLedger(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Rollups of one account summed per day, week (starting Monday) or month, for periods with any activity.
+     */
+    @Query(value = """
+        SELECT CAST(date_trunc(:unit, day) AS DATE) AS periodStart,
+               SUM(inflow) AS inflow, SUM(outflow) AS outflow,
+               SUM(inflow_count) AS inflowCount, SUM(outflow_count) AS outflowCount
+        FROM daily_account_rollups
+        WHERE account_id = :accountId AND day BETWEEN :from AND :to
+        GROUP BY 1
+        ORDER BY 1
+    """, nativeQuery = true)
+    List<FlowPeriod> sumByPeriod(@Param("accountId") Long accountId,
+                                 @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to,
+                                 @Param("unit") String unit);
+
+    /**
+     * Ids of the accounts with the most ledger entries since the given day, busiest first.
+     */
+    @Query(value = """
+        SELECT account_id FROM daily_account_rollups
+        WHERE day >= :since
+        GROUP BY account_id
+        ORDER BY SUM(inflow_count + outflow_count) DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findMostActiveAccountIds(@Param("since") LocalDate since, @Param("limit") int limit);
+
+    interface FlowPeriod {
+        LocalDate getPeriodStart();
+        BigDecimal getInflow();
+        BigDecimal getOutflow();
+        Long getInflowCount();
+        Long getOutflowCount();
+    }
+}
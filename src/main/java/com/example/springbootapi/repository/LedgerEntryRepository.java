@@ -0,0 +1,45 @@
+package com.example.springbootapi.repository;
+
+import com.example.springbootapi.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    List<LedgerEntry> findByTransactionId(Long transactionId);
+
+    @Query("""
+        SELECT COALESCE(SUM(
+            CASE WHEN e.direction = com.example.springbootapi.enums.LedgerDirection.CREDIT THEN e.amount ELSE -e.amount END
+        ), 0)
+        FROM LedgerEntry e
+        WHERE e.account.id = :accountId
+    """)
+    BigDecimal sumBalance(@Param("accountId") Long accountId);
+
+    /**
+     * Sets the balance of every account in the id range to the sum of its ledger entries and bumps its version,
+     * so a writer that read the old balance fails its optimistic check instead of overwriting the rebuild.
+     * Returns the number of accounts whose balance was wrong.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+        UPDATE accounts a
+        SET balance = l.balance, version = a.version + 1, updated_at = LOCALTIMESTAMP
+        FROM (
+            SELECT acc.id, COALESCE(SUM(CASE WHEN e.direction = 'CREDIT' THEN e.amount ELSE -e.amount END), 0) AS balance
+            FROM accounts acc
+            LEFT JOIN ledger_entries e ON e.account_id = acc.id
+            WHERE acc.id BETWEEN :fromId AND :toId
+            GROUP BY acc.id
+        ) l
+        WHERE a.id = l.id AND a.balance <> l.balance
+    """, nativeQuery = true)
+    int rebuildBalances(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,43 @@
+package com.example.springbootapi.repository;
+
+import com.example.springbootapi.entity.ReconciliationMismatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+    Page<ReconciliationMismatch> findByRunId(Long runId, Pageable pageable);
+
+    /**
+     * Compares every account in the id range with the net of its COMPLETED transactions in a single
+     * statement (one snapshot, no row locks) and writes the differences straight into the report table,
+     * so nothing per-account is ever loaded into the JVM. Returns the number of mismatches found.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO reconciliation_mismatches (run_id, account_id, stored_balance, expected_balance, detected_at)
+        SELECT :runId, a.id, a.balance, COALESCE(s.expected, 0), LOCALTIMESTAMP
+        FROM accounts a
+        LEFT JOIN (
+            SELECT d.account_id, SUM(d.delta) AS expected
+            FROM (
+                SELECT t.to_account_id AS account_id, t.amount AS delta
+                FROM transactions t
+                WHERE t.status = 'COMPLETED' AND t.to_account_id BETWEEN :fromId AND :toId
+                UNION ALL
+                SELECT t.from_account_id, -t.amount
+                FROM transactions t
+                WHERE t.status = 'COMPLETED' AND t.from_account_id BETWEEN :fromId AND :toId
+            ) d
+            GROUP BY d.account_id
+        ) s ON s.account_id = a.id
+        WHERE a.id BETWEEN :fromId AND :toId
+        AND a.balance <> COALESCE(s.expected, 0)
+    """, nativeQuery = true)
+    int insertMismatches(@Param("runId") Long runId, @Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,38 @@
+package com.example.springbootapi.repository;
+
+import com.example.springbootapi.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    Optional<ReconciliationRun> findTopByOrderByIdDesc();
+
+    @Modifying
+    @Query(value = """
+        UPDATE reconciliation_runs
+        SET ranges_done = ranges_done + 1,
+            accounts_checked = accounts_checked + :accounts,
+            mismatches = mismatches + :mismatches,
+            updated_at = LOCALTIMESTAMP
+        WHERE id = :id
+    """, nativeQuery = true)
+    int recordRange(@Param("id") Long id, @Param("accounts") long accounts, @Param("mismatches") long mismatches);
+
+    /**
+     * Fails RUNNING runs whose node stopped reporting progress, so a new run can start.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE reconciliation_runs
+        SET status = 'FAILED', error = 'Abandoned: no progress since ' || updated_at, finished_at = LOCALTIMESTAMP
+        WHERE status = 'RUNNING' AND updated_at < :cutoff
+    """, nativeQuery = true)
+    int failAbandoned(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -6,6 +6,7 @@ import com.example.springbootapi.enums.TransactionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,11 +26,10 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     @Query("""
         SELECT t FROM Transaction t
+        LEFT JOIN t.fromAccount fa LEFT JOIN fa.user fu
+        LEFT JOIN t.toAccount ta LEFT JOIN ta.user tu
         WHERE t.status = :status
-        AND (
-            (t.fromAccount IS NOT NULL AND t.fromAccount.user.username = :username)
-            OR (t.toAccount IS NOT NULL AND t.toAccount.user.username = :username)
-        )
+        AND (fu.username = :username OR tu.username = :username)
     """)
     Page<Transaction> findByStatusAndOwner(
             @Param("status") TransactionStatus status,
@@ -39,6 +39,111 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.fromAccount fa LEFT JOIN FETCH fa.user LEFT JOIN FETCH t.toAccount ta LEFT JOIN FETCH ta.user WHERE t.id = :id")
     Optional<Transaction> findByIdWithAccounts(@Param("id") Long id);
 
+    /**
+     * Row lock that serializes retries of the same transaction (client retries and the background scheduler).
+     */
+    @Query(value = "SELECT id FROM transactions WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    /**
+     * Claims due FAILED transactions for this node. Rows another node is claiming are skipped, not waited on.
+     */
+    @Query(value = """
+        SELECT id FROM transactions
+        WHERE status = 'FAILED' AND next_retry_at <= :now
+        ORDER BY next_retry_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> claimDueRetries(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Pushes claimed rows out by the lease so no other node picks them up while they are being retried.
+     */
+    @Modifying
+    @Query(value = "UPDATE transactions SET next_retry_at = :leaseUntil WHERE id IN (:ids)", nativeQuery = true)
+    int leaseRetries(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    long countByStatus(TransactionStatus status);
+
+    /**
+     * Claims the oldest queued submissions for this node, in id order and with the accounts they touch. Rows
+     * another node is claiming are skipped.
+     */
+    @Query(value = """
+        SELECT id AS id, from_account_id AS fromAccountId, to_account_id AS toAccountId FROM transactions
+        WHERE status = 'QUEUED'
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<QueuedTransaction> claimQueued(@Param("limit") int limit);
+
+    /**
+     * Moves claimed submissions to PENDING so they leave the queue; one that is never finished is
+     * resolved by the PENDING sweeper like any other abandoned transaction.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE transactions SET status = 'PENDING', updated_at = LOCALTIMESTAMP
+        WHERE id IN (:ids) AND status = 'QUEUED'
+    """, nativeQuery = true)
+    int dequeue(@Param("ids") List<Long> ids);
+
+    /**
+     * Puts dequeued submissions back after a first attempt was rolled back, e.g. on a balance update race, or was
+     * held back behind one.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE transactions SET status = 'QUEUED', updated_at = LOCALTIMESTAMP
+        WHERE id IN (:ids) AND status = 'PENDING' AND attempts = 0
+    """, nativeQuery = true)
+    int requeue(@Param("ids") List<Long> ids);
+
+    /**
+     * PENDING rows untouched since the cutoff, oldest first. Rows another node is sweeping are skipped.
+     */
+    @Query(value = """
+        SELECT id FROM transactions
+        WHERE status = 'PENDING' AND updated_at < :cutoff
+        ORDER BY updated_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> claimStalePending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Ledger entries are written in the same database transaction as the balance update,
+     * so a PENDING row that has them did move money.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE transactions t
+        SET status = 'COMPLETED', next_retry_at = NULL, updated_at = LOCALTIMESTAMP
+        WHERE t.id IN (:ids) AND t.status = 'PENDING'
+        AND EXISTS (SELECT 1 FROM ledger_entries e WHERE e.transaction_id = t.id)
+    """, nativeQuery = true)
+    int completePendingWithLedgerEntries(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = """
+        UPDATE transactions
+        SET status = 'FAILED', next_retry_at = NULL, updated_at = LOCALTIMESTAMP
+        WHERE id IN (:ids) AND status = 'PENDING'
+    """, nativeQuery = true)
+    int failPending(@Param("ids") List<Long> ids);
+
+    /**
+     * Outflows (withdrawals and outgoing transfers) submitted since the cutoff, whatever became of them.
+     */
+    @Query(value = """
+        SELECT from_account_id AS accountId, amount AS amount, created_at AS createdAt
+        FROM transactions
+        WHERE from_account_id IS NOT NULL AND created_at >= :since
+    """, nativeQuery = true)
+    List<RecentOutflow> findOutflowsSince(@Param("since") LocalDateTime since);
+
     @Query("""
         SELECT t FROM Transaction t
         WHERE t.status = com.example.springbootapi.enums.TransactionStatus.COMPLETED
@@ -77,4 +182,16 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("accountId") Long accountId,
             @Param("fromInstant") LocalDateTime fromInstant,
             @Param("toExclusive") LocalDateTime toExclusive);
+
+    interface QueuedTransaction {
+        Long getId();
+        Long getFromAccountId();
+        Long getToAccountId();
+    }
+
+    interface RecentOutflow {
+        Long getAccountId();
+        BigDecimal getAmount();
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -1,14 +1,50 @@
 package com.example.springbootapi.repository;
 
+import com.example.springbootapi.dto.UserResponseDTO;
 import com.example.springbootapi.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
+
+    /**
+     * Replaces a password hash only if it is still the one that was checked, so a rehash on login cannot undo
+     * a password change that committed in between. Leaves the version alone; the hash is never served.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    String DTO_SELECT = "SELECT new com.example.springbootapi.dto.UserResponseDTO(u.id, u.username, u.email, u.version) "
+            + "FROM User u ";
+
+    @Query(DTO_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponseDTO> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id IN :ids")
+    List<UserResponseDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Every user as a DTO, read through a server-side cursor. The caller must close the stream
+     * inside a transaction.
+     */
+    @Query(DTO_SELECT + "ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<UserResponseDTO> streamAll();
 }
 
@@ -1,12 +1,15 @@
 package com.example.springbootapi.security;
+import com.example.springbootapi.entity.User;
 import com.example.springbootapi.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository; // ← final
     public CustomUserDetailsService(UserRepository userRepository) { // ← constructor
         this.userRepository = userRepository;
@@ -16,4 +19,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
-}
\ No newline at end of file
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login whose stored hash uses an older algorithm
+     * or a lower work factor than the encoder is configured with; {@code newPassword} is already encoded.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        if (userRepository.replacePasswordHash(user.getId(), user.getPassword(), newPassword) == 1) {
+            user.setPassword(newPassword);
+        }
+        return user;
+    }
+}
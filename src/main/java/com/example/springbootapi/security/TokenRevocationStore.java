@@ -0,0 +1,127 @@
+package com.example.springbootapi.security;
+
+import com.example.springbootapi.cache.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Revoked token ids ({@code jti}). Redis holds the authoritative set as a sorted set scored by each token's
+ * expiry, so entries can be dropped once the token would have expired anyway. Every node also keeps a Bloom
+ * filter of the set: a token the filter has never seen is answered locally, and only filter hits (revoked
+ * tokens plus about {@code token-revocation.false-positive-rate} of the rest) go to Redis.
+ * <p>
+ * Revocations reach the other nodes' filters over pub/sub within milliseconds. The filter is rebuilt from
+ * Redis every {@code token-revocation.rebuild-interval-ms}, which forgets expired ids and repairs messages
+ * missed while disconnected. Until the first rebuild succeeds every lookup goes to Redis, and a lookup that
+ * needs Redis while it is unreachable counts as revoked.
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore implements MessageListener {
+
+    static final String KEY = "revoked-tokens";
+    static final String CHANNEL = "revoked-tokens";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean synced;
+
+    public TokenRevocationStore(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                @Value("${token-revocation.expected-revocations:1000000}") long expectedRevocations,
+                                @Value("${token-revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public boolean isRevoked(String jti) {
+        if (synced && !filter.mightContain(jti)) {
+            return false;
+        }
+        try {
+            Double expiresAt = redisTemplate.opsForZSet().score(KEY, jti);
+            return expiresAt != null && expiresAt > System.currentTimeMillis();
+        } catch (DataAccessException e) {
+            log.warn("Revocation lookup for token {} failed, treating it as revoked", jti, e);
+            return true;
+        }
+    }
+
+    /**
+     * Revokes a token until it expires. Returns false if it was already revoked, which makes using a refresh
+     * token a single atomic step across all nodes: only the caller that gets true may rotate it.
+     */
+    public boolean revoke(String jti, Instant expiresAt) {
+        Boolean added = redisTemplate.opsForZSet().addIfAbsent(KEY, jti, expiresAt.toEpochMilli());
+        remember(jti);
+        if (!Boolean.TRUE.equals(added)) {
+            return false;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, jti);
+        } catch (DataAccessException e) {
+            log.warn("Publishing revocation of token {} failed; other nodes pick it up at their next rebuild", jti, e);
+        }
+        return true;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        remember(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void remember(String jti) {
+        filter.add(jti);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(jti);
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${token-revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+        // Revocations published while the scan runs go into both filters
+        rebuilding = next;
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+            long count = 0;
+            try (Cursor<ZSetOperations.TypedTuple<String>> cursor =
+                         redisTemplate.opsForZSet().scan(KEY, ScanOptions.scanOptions().count(1000).build())) {
+                while (cursor.hasNext()) {
+                    next.add(cursor.next().getValue());
+                    count++;
+                }
+            }
+            filter = next;
+            synced = true;
+            log.debug("Rebuilt the token revocation filter from {} revoked ids", count);
+        } catch (DataAccessException e) {
+            log.warn("Rebuilding the token revocation filter failed; {}", synced
+                    ? "keeping the current one" : "every lookup still goes to Redis", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.dto.AccountAnalyticsDTO;
+import com.example.springbootapi.dto.FlowPeriodDTO;
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.enums.Granularity;
+import com.example.springbootapi.exception.ResourceNotFoundException;
+import com.example.springbootapi.money.Money;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Money in / money out per account over time, answered from daily_account_rollups instead of the raw
+ * transactions. The rollups are maintained by {@link LedgerService#post} and can be rebuilt from the ledger.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountAnalyticsService {
+    private final AccountRepository accountRepository;
+    private final DailyAccountRollupRepository dailyAccountRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.backfill-range-size:1000}")
+    private int backfillRangeSize;
+
+    @Value("${analytics.backfill-parallelism:4}")
+    private int backfillParallelism;
+
+    private boolean isAdmin() {
+        return SecurityContextHolder.getContext().getAuthentication()
+                .getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    @Transactional(readOnly = true)
+    public AccountAnalyticsDTO getAnalytics(Long accountId, LocalDate from, LocalDate to, String granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' date must not be after 'to' date");
+        }
+        Granularity unit = parseGranularity(granularity);
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId));
+        if (!isAdmin() && !account.getUser().getUsername().equals(currentUsername())) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        List<FlowPeriodDTO> periods = new ArrayList<>();
+        long totalInflowCents = 0;
+        long totalOutflowCents = 0;
+        for (DailyAccountRollupRepository.FlowPeriod period
+                : dailyAccountRollupRepository.sumByPeriod(accountId, from, to, unit.name().toLowerCase())) {
+            Money inflow = Money.of(period.getInflow());
+            Money outflow = Money.of(period.getOutflow());
+            periods.add(FlowPeriodDTO.builder()
+                    .periodStart(period.getPeriodStart())
+                    .inflow(period.getInflow())
+                    .outflow(period.getOutflow())
+                    .net(inflow.minus(outflow).toBigDecimal())
+                    .inflowCount(period.getInflowCount())
+                    .outflowCount(period.getOutflowCount())
+                    .build());
+            totalInflowCents = Math.addExact(totalInflowCents, inflow.cents());
+            totalOutflowCents = Math.addExact(totalOutflowCents, outflow.cents());
+        }
+
+        return AccountAnalyticsDTO.builder()
+                .accountId(accountId)
+                .from(from)
+                .to(to)
+                .granularity(unit)
+                .totalInflow(Money.ofCents(totalInflowCents).toBigDecimal())
+                .totalOutflow(Money.ofCents(totalOutflowCents).toBigDecimal())
+                .periods(periods)
+                .build();
+    }
+
+    /**
+     * Recomputes every account's rollups from the ledger. Account id ranges are rebuilt in parallel, each in its
+     * own transaction holding the row locks of that range's accounts, so postings to those accounts wait
+     * for the range instead of being lost or counted twice. Returns the number of rollup rows written.
+     */
+    public int rebuildRollups() {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId == null) {
+            return 0;
+        }
+        List<Callable<Integer>> ranges = new ArrayList<>();
+        for (long rangeStart = minId; rangeStart <= maxId; rangeStart += backfillRangeSize) {
+            long fromId = rangeStart;
+            long toId = Math.min(maxId, rangeStart + backfillRangeSize - 1);
+            ranges.add(() -> transactionTemplate.execute(status -> {
+                accountRepository.lockIdRange(fromId, toId);
+                dailyAccountRollupRepository.deleteAccountRange(fromId, toId);
+                return dailyAccountRollupRepository.insertFromLedger(fromId, toId);
+            }));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(backfillParallelism, ranges.size()),
+                r -> new Thread(r, "rollup-backfill"));
+        try {
+            int written = 0;
+            for (Future<Integer> range : pool.invokeAll(ranges)) {
+                Integer rows = range.get();
+                written += rows != null ? rows : 0;
+            }
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild was interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Granularity parseGranularity(String granularity) {
+        try {
+            return Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("granularity must be one of day, week, month");
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.cache.BloomFilter;
+import com.example.springbootapi.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Answers lookups of accounts that do not exist without querying the database. Every node keeps a Bloom filter
+ * of the existing account numbers, so a number it has never seen (a random guess, say) is rejected at once, and
+ * a negative cache of account numbers and ids recently found missing, which catches repeated lookups of the
+ * filter's false positives, deleted accounts and ids that do not exist yet.
+ * <p>
+ * A new account's number goes into this node's filter before its transaction commits. Once it commits, it is
+ * published over Redis pub/sub so the other nodes add it and drop it from their negative caches; until the
+ * message arrives (milliseconds) they may still answer 404 for it. A lookup that misses while an account is
+ * being created does not cache the miss. Account numbers are never reused, so deleted ones stay in the filter
+ * until the next rebuild from the database every {@code account-lookup.rebuild-interval-ms}; until the first
+ * rebuild succeeds, every number goes to the database.
+ */
+@Slf4j
+@Component
+public class AccountExistenceFilter implements MessageListener {
+
+    static final String CHANNEL = "account-created";
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final LongSupplier clock;
+    private final long expectedAccounts;
+    private final double falsePositiveRate;
+    private final long negativeTtlMillis;
+    private final int negativeMaxEntries;
+    private final ConcurrentHashMap<Object, Long> absentUntil = new ConcurrentHashMap<>();
+    private final AtomicLong creations = new AtomicLong();
+    private final Counter filteredByBloomFilter;
+    private final Counter filteredByNegativeCache;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean synced;
+
+    @Autowired
+    public AccountExistenceFilter(AccountRepository accountRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  MeterRegistry registry,
+                                  @Value("${account-lookup.expected-accounts:1000000}") long expectedAccounts,
+                                  @Value("${account-lookup.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${account-lookup.negative-cache.ttl-ms:600000}") long negativeTtlMillis,
+                                  @Value("${account-lookup.negative-cache.max-entries:100000}") int negativeMaxEntries) {
+        this(accountRepository, transactionTemplate, redisTemplate, listenerContainer, registry, expectedAccounts,
+                falsePositiveRate, negativeTtlMillis, negativeMaxEntries, System::currentTimeMillis);
+    }
+
+    AccountExistenceFilter(AccountRepository accountRepository, TransactionTemplate transactionTemplate,
+                           StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                           MeterRegistry registry, long expectedAccounts, double falsePositiveRate,
+                           long negativeTtlMillis, int negativeMaxEntries, LongSupplier clock) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.expectedAccounts = expectedAccounts;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.negativeMaxEntries = negativeMaxEntries;
+        this.filter = new BloomFilter(expectedAccounts, falsePositiveRate);
+        this.filteredByBloomFilter = Counter.builder("account.lookup.short_circuited")
+                .description("Account lookups answered as not found without a database query")
+                .tag("by", "bloom_filter")
+                .register(registry);
+        this.filteredByNegativeCache = Counter.builder("account.lookup.short_circuited")
+                .description("Account lookups answered as not found without a database query")
+                .tag("by", "negative_cache")
+                .register(registry);
+        Gauge.builder("account.lookup.negative_cache.size", absentUntil, ConcurrentHashMap::size)
+                .description("Account numbers and ids currently cached as missing")
+                .register(registry);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * True if no account has this number, known without a database query.
+     */
+    public boolean isKnownAbsent(String accountNumber) {
+        if (synced && !filter.mightContain(accountNumber)) {
+            filteredByBloomFilter.increment();
+            return true;
+        }
+        return isCachedAbsent(accountNumber);
+    }
+
+    /**
+     * True if no account has this id, known without a database query.
+     */
+    public boolean isKnownAbsent(Long id) {
+        return isCachedAbsent(id);
+    }
+
+    /**
+     * Taken before a lookup and passed to {@link #rememberAbsent} if it finds nothing, so that a miss which
+     * raced with the creation of an account is not cached.
+     */
+    public long creationCount() {
+        return creations.get();
+    }
+
+    public void rememberAbsent(String accountNumber, long creationCount) {
+        remember(accountNumber, creationCount);
+    }
+
+    public void rememberAbsent(Long id, long creationCount) {
+        remember(id, creationCount);
+    }
+
+    /**
+     * Called when an account is inserted: adds its number to this node's filter now, and once the transaction
+     * commits drops it from the negative caches here and, over pub/sub, on the other nodes.
+     */
+    public void created(Long id, String accountNumber) {
+        add(accountNumber);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forgetAbsent(id, accountNumber);
+            publish(id, accountNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // again, for a rebuild that scanned the table before the row was committed
+                add(accountNumber);
+                forgetAbsent(id, accountNumber);
+                publish(id, accountNumber);
+            }
+        });
+    }
+
+    /**
+     * Called when an account is deleted: once the transaction commits, this node answers its id and number
+     * as missing without asking the database again.
+     */
+    public void deleted(Long id, String accountNumber) {
+        long creationCount = creations.get();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(id, creationCount);
+            remember(accountNumber, creationCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(id, creationCount);
+                remember(accountNumber, creationCount);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 2) {
+            return;
+        }
+        add(parts[1]);
+        forgetAbsent(Long.valueOf(parts[0]), parts[1]);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${account-lookup.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedAccounts, falsePositiveRate);
+        // Accounts created while the scan runs go into both filters
+        rebuilding = next;
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                long added = 0;
+                try (Stream<String> accountNumbers = accountRepository.streamAccountNumbers()) {
+                    for (Iterator<String> it = accountNumbers.iterator(); it.hasNext(); added++) {
+                        next.add(it.next());
+                    }
+                }
+                return added;
+            });
+            filter = next;
+            synced = true;
+            log.debug("Rebuilt the account number filter from {} accounts", count);
+        } catch (DataAccessException | TransactionException e) {
+            // TransactionException: the database was unreachable when the transaction began
+            log.warn("Rebuilding the account number filter failed; {}", synced
+                    ? "keeping the current one" : "every account number lookup still goes to the database", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account-lookup.negative-cache.ttl-ms:600000}")
+    public void evictExpired() {
+        long now = clock.getAsLong();
+        absentUntil.values().removeIf(until -> until <= now);
+    }
+
+    private boolean isCachedAbsent(Object key) {
+        Long until = absentUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= clock.getAsLong()) {
+            absentUntil.remove(key, until);
+            return false;
+        }
+        filteredByNegativeCache.increment();
+        return true;
+    }
+
+    private void remember(Object key, long creationCount) {
+        if (negativeTtlMillis <= 0 || creations.get() != creationCount || absentUntil.size() >= negativeMaxEntries) {
+            return;
+        }
+        Long until = clock.getAsLong() + negativeTtlMillis;
+        absentUntil.put(key, until);
+        if (creations.get() != creationCount) {
+            absentUntil.remove(key, until); // an account was created meanwhile and may be this one
+        }
+    }
+
+    private void forgetAbsent(Long id, String accountNumber) {
+        creations.incrementAndGet();
+        absentUntil.remove(id);
+        absentUntil.remove(accountNumber);
+    }
+
+    /**
+     * Adds to the current filter and to one being rebuilt, again if a rebuild swapped the filters meanwhile.
+     */
+    private void add(String accountNumber) {
+        BloomFilter target;
+        do {
+            target = filter;
+            target.add(accountNumber);
+            BloomFilter next = rebuilding;
+            if (next != null) {
+                next.add(accountNumber);
+            }
+        } while (filter != target);
+    }
+
+    private void publish(Long id, String accountNumber) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, id + " " + accountNumber);
+        } catch (DataAccessException e) {
+            log.warn("Publishing new account {} failed; other nodes may answer 404 for it until their next rebuild",
+                    id, e);
+        }
+    }
+}
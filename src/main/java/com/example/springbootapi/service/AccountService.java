@@ -1,18 +1,25 @@
 package com.example.springbootapi.service;
 
+import com.example.springbootapi.cache.EntityVersionCache;
+import com.example.springbootapi.cache.SingleFlight;
+import com.example.springbootapi.datasource.ReadYourWritesContext;
 import com.example.springbootapi.dto.AccountDTO;
 import com.example.springbootapi.dto.AccountStatementDTO;
 import com.example.springbootapi.dto.CreateAccountRequest;
+import com.example.springbootapi.dto.KeysetPage;
 import com.example.springbootapi.dto.TransactionDTO;
 import com.example.springbootapi.entity.Account;
 import com.example.springbootapi.entity.User;
 import com.example.springbootapi.exception.ResourceNotFoundException;
 import com.example.springbootapi.mapper.AccountMapper;
 import com.example.springbootapi.mapper.TransactionMapper;
+import com.example.springbootapi.money.Money;
 import com.example.springbootapi.repository.AccountRepository;
 import com.example.springbootapi.repository.TransactionRepository;
 import com.example.springbootapi.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,8 +31,14 @@ import java.math.BigDecimal;
 import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +51,18 @@ public class AccountService {
     private final AccountMapper accountMapper;
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
+    private final EntityVersionCache entityVersionCache;
+    private final AccountExistenceFilter accountExistenceFilter;
+    private final SingleFlight<Long, AccountDTO> accountLoads = new SingleFlight<>();
+
+    @Value("${listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${listing.max-batch-size:100}")
+    private int maxBatchSize;
 
     private boolean isAdmin() {
         return SecurityContextHolder.getContext().getAuthentication()
@@ -49,11 +74,15 @@ public class AccountService {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
+    private Long currentUserId() {
+        return SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof User user ? user.getId() : null;
+    }
+
     /**
      * Generate a random account number similar to crypto wallet address
      * Format: 0x + 40 random alphanumeric characters
      */
-    private String generateAccountNumber() {
+    String generateAccountNumber() {
         StringBuilder accountNumber = new StringBuilder("0x");
 
         for (int i = 0; i < ACCOUNT_NUMBER_LENGTH - 2; i++) {
@@ -89,34 +118,131 @@ public class AccountService {
                 .build();
 
         Account savedAccount = accountRepository.save(account);
+        accountExistenceFilter.created(savedAccount.getId(), savedAccount.getAccountNumber());
 
         return accountMapper.toDTO(savedAccount);
     }
 
     public AccountDTO getAccountById(Long id) {
-        Account account = accountRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
-        if (!isAdmin() && !account.getUser().getUsername().equals(currentUsername())) {
+        AccountDTO account = loadAccount(id);
+        if (!isAdmin() && !account.getUsername().equals(currentUsername())) {
             throw new AccessDeniedException("Access denied");
         }
-        return accountMapper.toDTO(account);
+        entityVersionCache.putIfAbsent(EntityVersionCache.ACCOUNT, id, account.getVersion(), account.getUserId());
+        entityVersionCache.putIfAbsent(EntityVersionCache.USER, account.getUserId(), account.getOwnerVersion(), account.getUserId());
+        return account;
+    }
+
+    /**
+     * Loads the account outside a service transaction, sharing the load with concurrent callers for the same
+     * account (the version/owner entry behind the balance and ownership checks has expired for all of them at
+     * once), unless the caller needs to see its own latest writes. The access check is left to each caller.
+     */
+    private AccountDTO loadAccount(Long id) {
+        boolean primaryRequired = ReadYourWritesContext.isPrimaryRequired();
+        if (!primaryRequired && accountExistenceFilter.isKnownAbsent(id)) {
+            throw new ResourceNotFoundException("Account not found with id: " + id);
+        }
+        long creationCount = accountExistenceFilter.creationCount();
+        Supplier<AccountDTO> load = () -> accountRepository.findDTOById(id).orElseThrow(() -> {
+            accountExistenceFilter.rememberAbsent(id, creationCount);
+            return new ResourceNotFoundException("Account not found with id: " + id);
+        });
+        return primaryRequired ? load.get() : accountLoads.load(id, load);
+    }
+
+    /**
+     * ETag of the account's and its owner's current versions when both are known without loading the account
+     * and the caller may read it; null means the caller has to load the account.
+     */
+    public String getAccountETag(Long id) {
+        EntityVersionCache.Entry entry = entityVersionCache.get(EntityVersionCache.ACCOUNT, id);
+        if (entry == null || (!isAdmin() && !entry.ownerId().equals(currentUserId()))) {
+            return null;
+        }
+        EntityVersionCache.Entry owner = entityVersionCache.get(EntityVersionCache.USER, entry.ownerId());
+        return owner != null ? EntityVersionCache.etag(entry.version(), owner.version()) : null;
     }
 
     public BigDecimal getAccountBalance(Long id) {
-        Account account = accountRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + id));
-        if (!isAdmin() && !account.getUser().getUsername().equals(currentUsername())) {
+        return getAccountById(id).getBalance();
+    }
+
+    /**
+     * The accounts with the given ids, in the order asked for and without repeats, in one Redis MGET and one query
+     * however many ids there are. The version/owner entries found in Redis are checked for ownership before the
+     * query; the loaded rows settle the rest, and their missing entries are stored in one pipelined round trip.
+     * Fails as a whole with 404 if any account does not exist and 403 if the caller may not read any of them.
+     */
+    public List<AccountDTO> getAccountsByIds(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " account IDs per request");
+        }
+        boolean admin = isAdmin();
+        Map<Long, EntityVersionCache.Entry> cached = entityVersionCache.getAll(EntityVersionCache.ACCOUNT, distinct);
+        Long userId = currentUserId();
+        if (!admin && userId != null && cached.values().stream().anyMatch(entry -> !entry.ownerId().equals(userId))) {
             throw new AccessDeniedException("Access denied");
         }
-        return account.getBalance();
+        if (!ReadYourWritesContext.isPrimaryRequired()) {
+            List<Long> absent = distinct.stream().filter(accountExistenceFilter::isKnownAbsent).toList();
+            if (!absent.isEmpty()) {
+                throw new ResourceNotFoundException("Accounts not found with ids: " + absent);
+            }
+        }
+        long creationCount = accountExistenceFilter.creationCount();
+        Map<Long, AccountDTO> byId = new HashMap<>();
+        accountRepository.findDTOsByIdIn(distinct).forEach(account -> byId.put(account.getId(), account));
+        List<Long> missing = distinct.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            missing.forEach(id -> accountExistenceFilter.rememberAbsent(id, creationCount));
+            throw new ResourceNotFoundException("Accounts not found with ids: " + missing);
+        }
+        String username = currentUsername();
+        if (!admin && byId.values().stream().anyMatch(account -> !account.getUsername().equals(username))) {
+            throw new AccessDeniedException("Access denied");
+        }
+        Map<Long, EntityVersionCache.Entry> uncached = new HashMap<>();
+        byId.forEach((id, account) -> {
+            if (!cached.containsKey(id) && account.getVersion() != null) {
+                uncached.put(id, new EntityVersionCache.Entry(account.getVersion(), account.getUserId()));
+            }
+        });
+        entityVersionCache.putAllIfAbsent(EntityVersionCache.ACCOUNT, uncached);
+        return distinct.stream().map(byId::get).toList();
+    }
+
+    /**
+     * Balances by account id, in the order asked for, with the lookups and checks of {@link #getAccountsByIds}.
+     */
+    public Map<Long, BigDecimal> getAccountBalances(List<Long> ids) {
+        Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+        getAccountsByIds(ids).forEach(account -> balances.put(account.getId(), account.getBalance()));
+        return balances;
     }
 
+    /**
+     * Numbers of accounts that do not exist are mostly turned away by {@link AccountExistenceFilter} without
+     * a query.
+     */
+    @Transactional(readOnly = true)
     public AccountDTO getAccountByAccountNumber(String accountNumber) {
-        Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow(() -> new ResourceNotFoundException("Account not found with account number: " + accountNumber));
+        if (!ReadYourWritesContext.isPrimaryRequired() && accountExistenceFilter.isKnownAbsent(accountNumber)) {
+            throw new ResourceNotFoundException("Account not found with account number: " + accountNumber);
+        }
+        long creationCount = accountExistenceFilter.creationCount();
+        Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow(() -> {
+            accountExistenceFilter.rememberAbsent(accountNumber, creationCount);
+            return new ResourceNotFoundException("Account not found with account number: " + accountNumber);
+        });
         if (!isAdmin() && !account.getUser().getUsername().equals(currentUsername())) {
             throw new AccessDeniedException("Access denied");
         }
         return accountMapper.toDTO(account);
     }
 
+    @Transactional(readOnly = true)
     public List<AccountDTO> getAccountsByUserId(Long userId) {
         // Check if user exists
         if (!userRepository.existsById(userId)) {
@@ -137,14 +263,38 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
 
-    public List<AccountDTO> getAllAccounts() {
+    @Transactional(readOnly = true)
+    public KeysetPage<AccountDTO> getAccounts(Long afterId, Integer size) {
         if (!isAdmin()) {
             throw new AccessDeniedException("Access denied");
         }
-        List<Account> accounts = accountRepository.findAll();
-        return accounts.stream()
-                .map(accountMapper::toDTO)
-                .collect(Collectors.toList());
+        int limit = pageSize(size);
+        List<AccountDTO> accounts = accountRepository.findPageAfter(afterId != null ? afterId : 0L, Limit.of(limit));
+        return KeysetPage.of(accounts, limit, AccountDTO::getId);
+    }
+
+    /**
+     * Hands every account to {@code sink} in id order while a database cursor reads them, so memory use does
+     * not grow with the table. The access check runs before the first account is read.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllAccounts(Consumer<AccountDTO> sink) {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        try (Stream<AccountDTO> accounts = accountRepository.streamAll()) {
+            accounts.forEach(sink);
+        }
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+        return size;
     }
 
     @Transactional
@@ -158,10 +308,12 @@ public class AccountService {
 
         String accountNumber = account.getAccountNumber();
         accountRepository.delete(account);
+        accountExistenceFilter.deleted(id, accountNumber);
 
         return "Account with ID " + id + " and account number " + accountNumber + " has been successfully deleted";
     }
 
+    @Transactional(readOnly = true)
     public AccountStatementDTO getAccountStatement(Long accountId, LocalDate from, LocalDate to, Pageable pageable) {
         if (from.isAfter(to)) {
             throw new IllegalArgumentException("'from' date must not be after 'to' date");
@@ -180,19 +332,19 @@ public class AccountService {
                 .findStatementTransactions(accountId, fromInstant, toExclusive, pageable)
                 .map(transactionMapper::toDTO);
 
-        BigDecimal netFromFrom = transactionRepository.sumNetEffectFrom(accountId, fromInstant);
-        BigDecimal openingBalance = account.getBalance().subtract(netFromFrom);
+        Money netFromFrom = Money.of(transactionRepository.sumNetEffectFrom(accountId, fromInstant));
+        Money openingBalance = Money.of(account.getBalance()).minus(netFromFrom);
 
-        BigDecimal netInRange = transactionRepository.sumNetEffectInRange(accountId, fromInstant, toExclusive);
-        BigDecimal closingBalance = openingBalance.add(netInRange);
+        Money netInRange = Money.of(transactionRepository.sumNetEffectInRange(accountId, fromInstant, toExclusive));
+        Money closingBalance = openingBalance.plus(netInRange);
 
         return AccountStatementDTO.builder()
                 .accountId(account.getId())
                 .accountNumber(account.getAccountNumber())
                 .from(from)
                 .to(to)
-                .openingBalance(openingBalance)
-                .closingBalance(closingBalance)
+                .openingBalance(openingBalance.toBigDecimal())
+                .closingBalance(closingBalance.toBigDecimal())
                 .transactions(txPage)
                 .build();
     }
@@ -6,8 +6,12 @@ import com.example.springbootapi.entity.User;
 import com.example.springbootapi.exception.ResourceNotFoundException;
 import com.example.springbootapi.exception.UserAlreadyExistsException;
 import com.example.springbootapi.repository.UserRepository;
+import com.example.springbootapi.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,6 +23,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public AuthResponse register(AuthRequest request){
         if (userRepository.existsByUsername(request.getUsername())){
@@ -60,18 +65,52 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. Each refresh token works once:
+     * using it revokes it, and a second use (a replay, or a race with the legitimate client) is rejected.
+     */
     public AuthResponse refreshToken(String refreshToken){
-        String username = jwtService.extractUsername(refreshToken);
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new ResourceNotFoundException("User is not found with username: " + username));
-        if (!jwtService.isTokenValid(refreshToken, user)){
-            throw new RuntimeException("Invalid refresh token");
+        Claims claims = parse(refreshToken);
+        if (!JwtService.isRefreshToken(claims) || claims.getId() == null) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        User user = userRepository.findByUsername(claims.getSubject()).orElseThrow(() -> new ResourceNotFoundException("User is not found with username: " + claims.getSubject()));
+        if (!tokenRevocationStore.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            throw new BadCredentialsException("Refresh token has already been used or revoked");
         }
         return AuthResponse.builder()
                 .accessToken(jwtService.generateAccessToken(user))
-                .refreshToken(refreshToken)
+                .refreshToken(jwtService.generateRefreshToken(user))
                 .tokenType("Bearer")
                 .username(user.getUsername())
                 .role(user.getRole().name())
                 .build();
     }
+
+    /**
+     * Revokes a refresh token and, when given, the access token that came with it, on every node.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        Claims claims = parse(refreshToken);
+        if (!JwtService.isRefreshToken(claims)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (claims.getId() != null) {
+            tokenRevocationStore.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
+        if (accessToken != null) {
+            Claims accessClaims = parse(accessToken);
+            if (accessClaims.getId() != null && claims.getSubject().equals(accessClaims.getSubject())) {
+                tokenRevocationStore.revoke(accessClaims.getId(), accessClaims.getExpiration().toInstant());
+            }
+        }
+    }
+
+    private Claims parse(String token) {
+        try {
+            return jwtService.extractClaims(token.strip());
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
 }
@@ -11,9 +11,12 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
+    public static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -31,6 +34,7 @@ public class JwtService {
 
     public String generateAccessToken(UserDetails userDetails) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .claim("role", userDetails.getAuthorities()
                         .iterator().next().getAuthority())
@@ -42,8 +46,9 @@ public class JwtService {
 
     public String generateRefreshToken(UserDetails userDetails){
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
-                .claim("type", "refresh")
+                .claim("type", REFRESH_TYPE)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
                 .signWith(getSigningKey())
@@ -51,7 +56,10 @@ public class JwtService {
 
     }
 
-    private Claims extractClaims(String token) {
+    /**
+     * Verifies the signature and expiry; throws a {@code JwtException} otherwise.
+     */
+    public Claims extractClaims(String token) {
         return Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
@@ -63,6 +71,10 @@ public class JwtService {
         return extractClaims(token).getSubject();
     }
 
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get("type"));
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         String username = extractUsername(token);
         boolean usernameMatches = username.equals(userDetails.getUsername());
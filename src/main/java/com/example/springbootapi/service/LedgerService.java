@@ -0,0 +1,123 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.cache.EntityVersionCache;
+import com.example.springbootapi.dto.AccountDTO;
+import com.example.springbootapi.entity.LedgerEntry;
+import com.example.springbootapi.entity.Transaction;
+import com.example.springbootapi.enums.LedgerDirection;
+import com.example.springbootapi.exception.ResourceNotFoundException;
+import com.example.springbootapi.mapper.AccountMapper;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import com.example.springbootapi.repository.LedgerEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The ledger is the source of truth for balances: every completed transaction appends one DEBIT and one
+ * CREDIT entry, and {@code Account.balance} is a projection of those entries, maintained incrementally by
+ * {@link TransactionService} and rebuildable from the ledger at any time.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountRepository accountRepository;
+    private final DailyAccountRollupRepository dailyAccountRollupRepository;
+    private final AccountMapper accountMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityVersionCache entityVersionCache;
+
+    @Value("${ledger.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private boolean isAdmin() {
+        return SecurityContextHolder.getContext().getAuthentication()
+                .getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    /**
+     * Appends the entries for a transaction that has just moved money and adds them to the daily rollups.
+     * Must run in the same database transaction as the balance update so the projections never run ahead
+     * of the ledger.
+     */
+    @Transactional
+    public void post(Transaction transaction) {
+        List<LedgerEntry> entries = ledgerEntryRepository.saveAll(List.of(
+                LedgerEntry.builder()
+                        .transaction(transaction)
+                        .account(transaction.getFromAccount())
+                        .direction(LedgerDirection.DEBIT)
+                        .amount(transaction.getAmount())
+                        .build(),
+                LedgerEntry.builder()
+                        .transaction(transaction)
+                        .account(transaction.getToAccount())
+                        .direction(LedgerDirection.CREDIT)
+                        .amount(transaction.getAmount())
+                        .build()
+        ));
+        for (LedgerEntry entry : entries) {
+            if (entry.getAccount() == null) {
+                continue;
+            }
+            boolean credit = entry.getDirection() == LedgerDirection.CREDIT;
+            dailyAccountRollupRepository.addFlows(entry.getAccount().getId(), entry.getCreatedAt().toLocalDate(),
+                    credit ? entry.getAmount() : BigDecimal.ZERO, credit ? BigDecimal.ZERO : entry.getAmount(),
+                    credit ? 1 : 0, credit ? 0 : 1);
+        }
+    }
+
+    @Transactional
+    @CacheEvict(value = "balances", allEntries = true)
+    public AccountDTO rebuildBalance(Long accountId) {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (accountRepository.lockIdRange(accountId, accountId).isEmpty()) {
+            throw new ResourceNotFoundException("Account not found with id: " + accountId);
+        }
+        ledgerEntryRepository.rebuildBalances(accountId, accountId);
+        entityVersionCache.evictRange(EntityVersionCache.ACCOUNT, accountId, accountId);
+        return accountRepository.findById(accountId)
+                .map(accountMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + accountId));
+    }
+
+    /**
+     * Rebuilds every balance from the ledger in id batches, each in its own short transaction that locks only
+     * the accounts in that batch. Returns the number of accounts that were corrected.
+     */
+    @CacheEvict(value = "balances", allEntries = true)
+    public int rebuildAllBalances() {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        Long maxId = accountRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        int corrected = 0;
+        for (long batchStart = 1; batchStart <= maxId; batchStart += rebuildBatchSize) {
+            long fromId = batchStart;
+            long toId = Math.min(maxId, batchStart + rebuildBatchSize - 1);
+            Integer batchCorrected = transactionTemplate.execute(status -> {
+                accountRepository.lockIdRange(fromId, toId);
+                entityVersionCache.evictRange(EntityVersionCache.ACCOUNT, fromId, toId);
+                return ledgerEntryRepository.rebuildBalances(fromId, toId);
+            });
+            corrected += batchCorrected != null ? batchCorrected : 0;
+        }
+        return corrected;
+    }
+}
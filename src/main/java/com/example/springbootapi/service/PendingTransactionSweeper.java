@@ -0,0 +1,93 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resolves PENDING transactions left behind by a node that stopped mid-flight.
+ * A stale PENDING row becomes COMPLETED if its ledger entries exist (the balance effect was committed)
+ * and FAILED otherwise. FAILED rows recovered this way are not scheduled for an automatic retry, since the
+ * client never got an answer and may already have resubmitted; they can still be retried explicitly.
+ * Batches are claimed with SKIP LOCKED through a partial index, so every node can sweep at the same time.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pending-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class PendingTransactionSweeper {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    @Value("${pending-sweeper.stale-after-ms:300000}")
+    private long staleAfterMillis;
+
+    @Value("${pending-sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${pending-sweeper.max-batches:20}")
+    private int maxBatches;
+
+    public PendingTransactionSweeper(TransactionRepository transactionRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry registry) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.completedCounter = Counter.builder("transaction.pending.recovered")
+                .description("Stale PENDING transactions resolved by the sweeper")
+                .tag("resolution", "completed")
+                .register(registry);
+        this.failedCounter = Counter.builder("transaction.pending.recovered")
+                .description("Stale PENDING transactions resolved by the sweeper")
+                .tag("resolution", "failed")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${pending-sweeper.interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis));
+        int completed = 0;
+        int failed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int[] resolved = transactionTemplate.execute(status -> sweepBatch(cutoff));
+            if (resolved == null || resolved[0] + resolved[1] == 0) {
+                break;
+            }
+            completed += resolved[0];
+            failed += resolved[1];
+            if (resolved[0] + resolved[1] < batchSize) {
+                break;
+            }
+        }
+        if (completed + failed > 0) {
+            completedCounter.increment(completed);
+            failedCounter.increment(failed);
+            log.info("Resolved stale PENDING transactions: {} completed, {} failed", completed, failed);
+        }
+    }
+
+    /**
+     * Returns {completed, failed} for one claimed batch.
+     */
+    private int[] sweepBatch(LocalDateTime cutoff) {
+        List<Long> ids = transactionRepository.claimStalePending(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        int completed = transactionRepository.completePendingWithLedgerEntries(ids);
+        int failed = transactionRepository.failPending(ids);
+        return new int[]{completed, failed};
+    }
+}
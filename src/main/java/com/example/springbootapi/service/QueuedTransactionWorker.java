@@ -0,0 +1,171 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.TransactionRepository;
+import com.example.springbootapi.repository.TransactionRepository.QueuedTransaction;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains transactions submitted with {@code Prefer: respond-async}. Each poll claims a batch of QUEUED rows
+ * with {@code FOR UPDATE SKIP LOCKED} and moves them to PENDING in the same short transaction, so every node
+ * can drain the queue without two nodes taking the same row. The transactions then run on a small worker pool,
+ * one database transaction each. Transactions of a batch that share an account run one after another in id order,
+ * so they take effect in the order they were submitted; one that loses a balance update race goes back to the
+ * queue together with the rest of its group.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction-async.enabled", havingValue = "true", matchIfMissing = true)
+public class QueuedTransactionWorker {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final TransactionQueue transactionQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    @Value("${transaction-async.batch-size:100}")
+    private int batchSize;
+
+    @Value("${transaction-async.max-batches:20}")
+    private int maxBatches;
+
+    public QueuedTransactionWorker(TransactionService transactionService,
+                                   TransactionRepository transactionRepository,
+                                   TransactionQueue transactionQueue,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${transaction-async.workers:4}") int workerCount) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.transactionQueue = transactionQueue;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                r -> new Thread(r, "transaction-queue-" + threadNumber.incrementAndGet()));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction-async.poll-interval-ms:200}")
+    public void drain() throws InterruptedException {
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                List<QueuedTransaction> claimed = claimBatch();
+                if (claimed.isEmpty()) {
+                    break;
+                }
+                process(claimed);
+                if (claimed.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            transactionQueue.refresh();
+        }
+    }
+
+    List<QueuedTransaction> claimBatch() {
+        List<QueuedTransaction> claimed = transactionTemplate.execute(status -> {
+            List<QueuedTransaction> transactions = transactionRepository.claimQueued(batchSize);
+            if (!transactions.isEmpty()) {
+                transactionRepository.dequeue(transactions.stream().map(QueuedTransaction::getId).toList());
+            }
+            return transactions;
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    private void process(List<QueuedTransaction> claimed) throws InterruptedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (List<Long> group : groupByAccount(claimed)) {
+            tasks.add(() -> {
+                processInOrder(group);
+                return null;
+            });
+        }
+        workers.invokeAll(tasks);
+    }
+
+    private void processInOrder(List<Long> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            // Any other exception leaves the row PENDING; the PENDING sweeper resolves it
+            try {
+                transactionService.processQueued(id);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // The rest of the group must not overtake it, so they go back to the queue as well
+                List<Long> requeued = ids.subList(i, ids.size());
+                log.debug("Queued transaction {} lost a balance update race, requeueing it and {} after it",
+                        id, requeued.size() - 1);
+                transactionTemplate.executeWithoutResult(status -> transactionRepository.requeue(requeued));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Processing of queued transaction {} failed", id, e);
+            }
+        }
+    }
+
+    /**
+     * Splits a batch into groups of transactions linked through their accounts (a transfer joins the groups of
+     * both its accounts), each group in id order.
+     */
+    static List<List<Long>> groupByAccount(List<QueuedTransaction> claimed) {
+        Map<Long, Long> parent = new HashMap<>();
+        for (QueuedTransaction transaction : claimed) {
+            if (transaction.getFromAccountId() != null && transaction.getToAccountId() != null) {
+                Long fromRoot = root(parent, transaction.getFromAccountId());
+                Long toRoot = root(parent, transaction.getToAccountId());
+                if (!fromRoot.equals(toRoot)) {
+                    parent.put(fromRoot, toRoot);
+                }
+            }
+        }
+        List<List<Long>> groups = new ArrayList<>();
+        Map<Long, List<Long>> groupByRoot = new HashMap<>();
+        for (QueuedTransaction transaction : claimed) {
+            Long account = transaction.getFromAccountId() != null
+                    ? transaction.getFromAccountId() : transaction.getToAccountId();
+            List<Long> group = account != null
+                    ? groupByRoot.computeIfAbsent(root(parent, account), root -> addGroup(groups))
+                    : addGroup(groups);
+            group.add(transaction.getId());
+        }
+        return groups;
+    }
+
+    private static List<Long> addGroup(List<List<Long>> groups) {
+        List<Long> group = new ArrayList<>();
+        groups.add(group);
+        return group;
+    }
+
+    private static Long root(Map<Long, Long> parent, Long account) {
+        Long root = account;
+        for (Long next = parent.get(root); next != null; next = parent.get(root)) {
+            root = next;
+        }
+        for (Long node = account; !node.equals(root); ) {
+            node = parent.put(node, root);
+        }
+        return root;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
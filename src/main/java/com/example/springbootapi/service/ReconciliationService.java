@@ -0,0 +1,268 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.dto.ReconciliationMismatchDTO;
+import com.example.springbootapi.dto.ReconciliationRunDTO;
+import com.example.springbootapi.entity.ReconciliationRun;
+import com.example.springbootapi.enums.ReconciliationStatus;
+import com.example.springbootapi.exception.ResourceNotFoundException;
+import com.example.springbootapi.mapper.ReconciliationMapper;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.ReconciliationMismatchRepository;
+import com.example.springbootapi.repository.ReconciliationRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that every {@code accounts.balance} equals the net of its COMPLETED transactions.
+ * The id space is cut into fixed-size ranges that fork-join workers reconcile in parallel, one short
+ * transaction per range running a single set-based statement, so no lock outlives a range and memory
+ * use does not grow with the number of accounts or transactions. Mismatches go to reconciliation_mismatches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final AccountRepository accountRepository;
+    private final ReconciliationMapper reconciliationMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reconciliation.range-size:10000}")
+    private int rangeSize;
+
+    @Value("${reconciliation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${reconciliation.stale-after-ms:600000}")
+    private long staleAfterMillis;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "reconciliation"));
+    private volatile Progress progress;
+
+    private boolean isAdmin() {
+        return SecurityContextHolder.getContext().getAuthentication()
+                .getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    public ReconciliationRunDTO startRun() {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        return start(currentUsername());
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:-}")
+    public void scheduledRun() {
+        try {
+            start("scheduler");
+        } catch (IllegalStateException e) {
+            log.info("Skipping scheduled reconciliation: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ReconciliationRunDTO getRun(Long id) {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        return runRepository.findById(id)
+                .map(reconciliationMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found with id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ReconciliationMismatchDTO> getMismatches(Long runId, Pageable pageable) {
+        if (!isAdmin()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (!runRepository.existsById(runId)) {
+            throw new ResourceNotFoundException("Reconciliation run not found with id: " + runId);
+        }
+        return mismatchRepository.findByRunId(runId, pageable)
+                .map(reconciliationMapper::toDTO);
+    }
+
+    /**
+     * Live progress of the run executing on this node, or the latest run recorded by any node.
+     */
+    public Map<String, Object> progress() {
+        Progress current = progress;
+        if (current != null && current.finishedNanos == 0) {
+            return current.snapshot();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        runRepository.findTopByOrderByIdDesc().ifPresent(run -> {
+            body.put("runId", run.getId());
+            body.put("status", run.getStatus());
+            body.put("rangesTotal", run.getRangesTotal());
+            body.put("rangesDone", run.getRangesDone());
+            body.put("accountsChecked", run.getAccountsChecked());
+            body.put("mismatches", run.getMismatches());
+            LocalDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : run.getUpdatedAt();
+            long elapsedMs = Duration.between(run.getStartedAt(), end).toMillis();
+            body.put("elapsedMs", elapsedMs);
+            body.put("accountsPerSecond", elapsedMs == 0 ? 0 : run.getAccountsChecked() * 1000 / elapsedMs);
+        });
+        return body;
+    }
+
+    private ReconciliationRunDTO start(String triggeredBy) {
+        ReconciliationRun run;
+        try {
+            run = transactionTemplate.execute(status -> {
+                runRepository.failAbandoned(LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis)));
+                LocalDateTime now = LocalDateTime.now();
+                return runRepository.saveAndFlush(ReconciliationRun.builder()
+                        .status(ReconciliationStatus.RUNNING)
+                        .triggeredBy(triggeredBy)
+                        .startedAt(now)
+                        .updatedAt(now)
+                        .build());
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        runner.submit(() -> execute(run));
+        return reconciliationMapper.toDTO(run);
+    }
+
+    void execute(ReconciliationRun run) {
+        try {
+            Long minId = accountRepository.findMinId();
+            Long maxId = accountRepository.findMaxId();
+            int rangesTotal = minId == null ? 0 : (int) ((maxId - minId) / rangeSize + 1);
+            run.setRangesTotal(rangesTotal);
+            runRepository.save(run);
+
+            Progress current = new Progress(run.getId(), rangesTotal);
+            progress = current;
+            if (rangesTotal > 0) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    pool.invoke(new RangeTask(current, minId, rangesTotal));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            current.finishedNanos = System.nanoTime();
+            finish(run.getId(), ReconciliationStatus.COMPLETED, null);
+            log.info("Reconciliation run {} completed: {} accounts checked, {} mismatches",
+                    run.getId(), current.accountsChecked.get(), current.mismatches.get());
+        } catch (RuntimeException e) {
+            log.error("Reconciliation run {} failed", run.getId(), e);
+            if (progress != null) {
+                progress.finishedNanos = System.nanoTime();
+            }
+            finish(run.getId(), ReconciliationStatus.FAILED, e.toString());
+        }
+    }
+
+    private void reconcileRange(Progress current, long fromId, long toId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long accounts = accountRepository.countByIdBetween(fromId, toId);
+            int mismatches = mismatchRepository.insertMismatches(current.runId, fromId, toId);
+            runRepository.recordRange(current.runId, accounts, mismatches);
+            current.accountsChecked.addAndGet(accounts);
+            current.mismatches.addAndGet(mismatches);
+        });
+        current.rangesDone.incrementAndGet();
+    }
+
+    private void finish(Long runId, ReconciliationStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> runRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(status);
+            run.setError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setUpdatedAt(run.getFinishedAt());
+            runRepository.save(run);
+        }));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    /**
+     * Covers {@code rangeCount} consecutive ranges starting at {@code firstId}, halving until a single range is left.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final Progress current;
+        private final long firstId;
+        private final int rangeCount;
+
+        private RangeTask(Progress current, long firstId, int rangeCount) {
+            this.current = current;
+            this.firstId = firstId;
+            this.rangeCount = rangeCount;
+        }
+
+        @Override
+        protected void compute() {
+            if (rangeCount == 1) {
+                reconcileRange(current, firstId, firstId + rangeSize - 1);
+                return;
+            }
+            int half = rangeCount / 2;
+            invokeAll(new RangeTask(current, firstId, half),
+                    new RangeTask(current, firstId + (long) half * rangeSize, rangeCount - half));
+        }
+    }
+
+    private static final class Progress {
+        private final Long runId;
+        private final int rangesTotal;
+        private final long startedNanos = System.nanoTime();
+        private final AtomicInteger rangesDone = new AtomicInteger();
+        private final AtomicLong accountsChecked = new AtomicLong();
+        private final AtomicLong mismatches = new AtomicLong();
+        private volatile long finishedNanos;
+
+        private Progress(Long runId, int rangesTotal) {
+            this.runId = runId;
+            this.rangesTotal = rangesTotal;
+        }
+
+        private Map<String, Object> snapshot() {
+            long elapsedMs = (System.nanoTime() - startedNanos) / 1_000_000;
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("runId", runId);
+            body.put("status", ReconciliationStatus.RUNNING);
+            body.put("rangesTotal", rangesTotal);
+            body.put("rangesDone", rangesDone.get());
+            body.put("accountsChecked", accountsChecked.get());
+            body.put("mismatches", mismatches.get());
+            body.put("elapsedMs", elapsedMs);
+            body.put("accountsPerSecond", elapsedMs == 0 ? 0 : accountsChecked.get() * 1000 / elapsedMs);
+            return body;
+        }
+    }
+}
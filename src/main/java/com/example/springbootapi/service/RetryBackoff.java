@@ -0,0 +1,36 @@
+package com.example.springbootapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for automatic retries of FAILED transactions.
+ */
+@Component
+public class RetryBackoff {
+
+    @Value("${transaction-retry.base-delay-ms:5000}")
+    private long baseDelayMillis;
+
+    @Value("${transaction-retry.max-delay-ms:3600000}")
+    private long maxDelayMillis;
+
+    @Value("${transaction-retry.max-attempts:8}")
+    private int maxAttempts;
+
+    /**
+     * When to try again after {@code attempts} failed attempts, or null once the transaction has used them all.
+     * The delay doubles per attempt up to the cap; half of it is random so retries of a burst of failures spread out.
+     */
+    public LocalDateTime nextAttemptAt(int attempts) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(Math.max(attempts - 1, 0), 30));
+        long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        return LocalDateTime.now().plusNanos(jittered * 1_000_000);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.exception.QueueFullException;
+import com.example.springbootapi.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for asynchronous submissions. QUEUED rows in {@code transactions} are the queue itself;
+ * this keeps an estimate of its depth so admission does not count rows on every request. The estimate is
+ * reset from the database by {@link QueuedTransactionWorker} after every drain and incremented locally in
+ * between, so with several nodes the bound is soft by at most one poll interval of admissions per node.
+ */
+@Component
+public class TransactionQueue {
+
+    private final TransactionRepository transactionRepository;
+    private final AtomicLong depth = new AtomicLong();
+
+    @Value("${transaction-async.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction-async.queue-capacity:10000}")
+    private long capacity;
+
+    public TransactionQueue(TransactionRepository transactionRepository, MeterRegistry registry) {
+        this.transactionRepository = transactionRepository;
+        Gauge.builder("transaction.queue.depth", depth, AtomicLong::get)
+                .description("Asynchronously submitted transactions waiting for a worker")
+                .register(registry);
+    }
+
+    /**
+     * Takes a slot for one submission, or rejects it when the queue is at capacity.
+     */
+    public void reserve() {
+        if (!enabled) {
+            throw new IllegalStateException("Asynchronous submission is disabled");
+        }
+        long current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                throw new QueueFullException("Transaction queue is full, retry later");
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+    }
+
+    public void refresh() {
+        depth.set(transactionRepository.countByStatus(TransactionStatus.QUEUED));
+    }
+
+    public long depth() {
+        return depth.get();
+    }
+}
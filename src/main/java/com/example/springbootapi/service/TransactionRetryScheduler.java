@@ -0,0 +1,96 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries FAILED transactions whose {@code next_retry_at} has passed, so clients do not have to poll
+ * {@code POST /api/transactions/{id}/retry}.
+ * Each poll claims a batch with {@code FOR UPDATE SKIP LOCKED} and leases it by pushing {@code next_retry_at}
+ * forward in the same short transaction, so every node can run this without two nodes retrying the same row.
+ * The retries themselves run on a small worker pool, one database transaction each.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "transaction-retry.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionRetryScheduler {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+
+    @Value("${transaction-retry.batch-size:50}")
+    private int batchSize;
+
+    @Value("${transaction-retry.lease-ms:60000}")
+    private long leaseMillis;
+
+    public TransactionRetryScheduler(TransactionService transactionService,
+                                     TransactionRepository transactionRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${transaction-retry.workers:4}") int workerCount) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                r -> new Thread(r, "transaction-retry-" + threadNumber.incrementAndGet()));
+    }
+
+    @Scheduled(fixedDelayString = "${transaction-retry.poll-interval-ms:5000}")
+    public void retryDueTransactions() throws InterruptedException {
+        List<Long> claimed = claimBatch();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<Callable<Void>> retries = new ArrayList<>(claimed.size());
+        for (Long id : claimed) {
+            retries.add(() -> {
+                // On any exception the retry rolls back; the lease expires and the row is claimed again on a later poll
+                try {
+                    transactionService.retryScheduled(id);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    log.debug("Background retry of transaction {} lost a balance update race", id);
+                } catch (RuntimeException e) {
+                    log.warn("Background retry of transaction {} failed", id, e);
+                }
+                return null;
+            });
+        }
+        workers.invokeAll(retries);
+    }
+
+    List<Long> claimBatch() {
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = transactionRepository.claimDueRetries(LocalDateTime.now(), batchSize);
+            if (!ids.isEmpty()) {
+                transactionRepository.leaseRetries(ids, LocalDateTime.now().plus(Duration.ofMillis(leaseMillis)));
+            }
+            return ids;
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -5,9 +5,14 @@ import com.example.springbootapi.dto.TransactionDTO;
 import com.example.springbootapi.entity.Account;
 import com.example.springbootapi.entity.Transaction;
 import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.enums.TransactionType;
 import com.example.springbootapi.exception.InsufficientFundsException;
 import com.example.springbootapi.exception.ResourceNotFoundException;
 import com.example.springbootapi.mapper.TransactionMapper;
+import com.example.springbootapi.metrics.TransactionMetrics;
+import com.example.springbootapi.metrics.TransactionMetrics.Outcome;
+import com.example.springbootapi.metrics.TransactionMetrics.Stage;
+import com.example.springbootapi.money.Money;
 import com.example.springbootapi.repository.AccountRepository;
 import com.example.springbootapi.repository.TransactionRepository;
 import com.example.springbootapi.repository.UserRepository;
@@ -30,6 +35,11 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     private final TransactionMapper transactionMapper;
     private final UserRepository userRepository;
+    private final TransactionMetrics transactionMetrics;
+    private final LedgerService ledgerService;
+    private final RetryBackoff retryBackoff;
+    private final TransactionQueue transactionQueue;
+    private final VelocityLimiter velocityLimiter;
 
     private boolean isAdmin() {
         return SecurityContextHolder.getContext().getAuthentication()
@@ -44,71 +54,110 @@ public class TransactionService {
     @Transactional
     @CacheEvict(value = "balances", allEntries = true)
     public TransactionDTO createTransaction(CreateTransactionRequest request) {
+        TransactionType type = request.getType();
+        long started = transactionMetrics.start();
 
         // Upfront validation — these throw before any save (no record persisted)
-        Account fromAccount = null;
-        Account toAccount = null;
+        validateRequest(request);
+        long stageStart = transactionMetrics.recordStage(Stage.VALIDATION, type, started);
 
-        switch (request.getType()) {
-            case TRANSFER:
-                if (request.getFromAccountId() == null || request.getToAccountId() == null) {
-                    throw new IllegalArgumentException("Transfer transaction requires both from and to accounts");
-                }
-                if (request.getFromAccountId().equals(request.getToAccountId())) {
-                    throw new IllegalArgumentException("Cannot transfer to the same account");
-                }
-                fromAccount = findAccount(request.getFromAccountId());
-                if (!isAdmin() && !fromAccount.getUser().getUsername().equals(currentUsername())) {
-                    throw new AccessDeniedException("Access denied");
-                }
-                toAccount = findAccount(request.getToAccountId());
-                break;
-            case DEPOSIT:
-                if (request.getToAccountId() == null) {
-                    throw new IllegalArgumentException("Deposit transaction requires to account");
-                }
-                toAccount = findAccount(request.getToAccountId());
-                if (!isAdmin() && !toAccount.getUser().getUsername().equals(currentUsername())) {
-                    throw new AccessDeniedException("Access denied");
-                }
-                break;
-            case WITHDRAWAL:
-                if (request.getFromAccountId() == null) {
-                    throw new IllegalArgumentException("Withdrawal transaction requires from account");
-                }
-                fromAccount = findAccount(request.getFromAccountId());
-                if (!isAdmin() && !fromAccount.getUser().getUsername().equals(currentUsername())) {
-                    throw new AccessDeniedException("Access denied");
-                }
-                break;
+        Account fromAccount = type == TransactionType.DEPOSIT ? null : findAccount(request.getFromAccountId());
+        Account toAccount = type == TransactionType.WITHDRAWAL ? null : findAccount(request.getToAccountId());
+        checkOwnership(type == TransactionType.DEPOSIT ? toAccount : fromAccount);
+        if (fromAccount != null) {
+            velocityLimiter.reserve(fromAccount.getId(), request.getAmount());
         }
+        Long fromAccountId = fromAccount != null ? fromAccount.getId() : null;
+        Long toAccountId = toAccount != null ? toAccount.getId() : null;
+        stageStart = transactionMetrics.recordStage(Stage.ACCOUNT_LOAD, type, stageStart);
 
         // Save PENDING record to get an ID
         Transaction transaction = Transaction.builder()
                 .fromAccount(fromAccount)
                 .toAccount(toAccount)
                 .amount(request.getAmount())
-                .type(request.getType())
+                .type(type)
                 .status(TransactionStatus.PENDING)
+                .attempts(1)
                 .build();
         transactionRepository.save(transaction);
         transactionRepository.flush();
+        stageStart = transactionMetrics.recordStage(Stage.PENDING_INSERT, type, stageStart);
 
         // Attempt balance update; catch failures so FAILED record commits
+        Outcome outcome;
         try {
-            executeBalanceUpdate(fromAccount, toAccount, request.getAmount(), request.getType());
+            executeBalanceUpdate(fromAccount, toAccount, request.getAmount(), type);
             transaction.setStatus(TransactionStatus.COMPLETED);
-        } catch (InsufficientFundsException | ResourceNotFoundException | ObjectOptimisticLockingFailureException e) {
+            ledgerService.post(transaction);
+            outcome = Outcome.COMPLETED;
+        } catch (InsufficientFundsException | ResourceNotFoundException e) {
+            // Final: a later automatic retry could apply a transfer the client was told had failed
+            transaction.setStatus(TransactionStatus.FAILED);
+            outcome = Outcome.FAILED;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            transactionMetrics.recordConflict(fromAccountId, toAccountId);
             transaction.setStatus(TransactionStatus.FAILED);
+            outcome = Outcome.CONFLICT;
+            transaction.setNextRetryAt(retryBackoff.nextAttemptAt(transaction.getAttempts()));
         }
+        stageStart = transactionMetrics.recordStage(Stage.BALANCE_UPDATE, type, stageStart);
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionMetrics.recordStage(Stage.FINAL_SAVE, type, stageStart);
+        transactionMetrics.recordOutcome(type, outcome, started, fromAccountId, toAccountId);
         return transactionMapper.toDTO(savedTransaction);
     }
 
+    /**
+     * Asynchronous counterpart of {@link #createTransaction}: validates and authorizes the request the same way,
+     * then only records it as QUEUED for {@link QueuedTransactionWorker}. Balances are not touched here, so a
+     * burst of submissions costs one insert each; clients follow the outcome through the transaction's status.
+     */
+    @Transactional
+    public TransactionDTO submitTransaction(CreateTransactionRequest request) {
+        validateRequest(request);
+        TransactionType type = request.getType();
+        Account fromAccount = type == TransactionType.DEPOSIT ? null : findAccount(request.getFromAccountId());
+        Account toAccount = type == TransactionType.WITHDRAWAL ? null : findAccount(request.getToAccountId());
+        checkOwnership(type == TransactionType.DEPOSIT ? toAccount : fromAccount);
+        if (fromAccount != null) {
+            velocityLimiter.reserve(fromAccount.getId(), request.getAmount());
+        }
+
+        transactionQueue.reserve();
+        Transaction transaction = Transaction.builder()
+                .fromAccount(fromAccount)
+                .toAccount(toAccount)
+                .amount(request.getAmount())
+                .type(type)
+                .status(TransactionStatus.QUEUED)
+                .build();
+        return transactionMapper.toDTO(transactionRepository.save(transaction));
+    }
+
+    /**
+     * First attempt of a submission that {@link QueuedTransactionWorker} has dequeued. A failure is handled
+     * exactly like a synchronous one (only version conflicts are retried automatically); a row that is not a dequeued submission is left alone.
+     */
+    @Transactional
+    @CacheEvict(value = "balances", allEntries = true)
+    public TransactionStatus processQueued(Long id) {
+        if (transactionRepository.lockById(id).isEmpty()) {
+            return null;
+        }
+        Transaction transaction = transactionRepository.findByIdWithAccounts(id).orElseThrow();
+        if (transaction.getStatus() != TransactionStatus.PENDING || transaction.getAttempts() > 0) {
+            return transaction.getStatus();
+        }
+        return attemptRetry(transaction).getStatus();
+    }
+
     @Transactional
     @CacheEvict(value = "balances", allEntries = true)
     public TransactionDTO retryTransaction(Long id) {
+        transactionRepository.lockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
         Transaction transaction = transactionRepository.findByIdWithAccounts(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
 
@@ -125,6 +174,32 @@ public class TransactionService {
             throw new IllegalStateException("Cannot retry a completed transaction");
         }
 
+        return transactionMapper.toDTO(attemptRetry(transaction));
+    }
+
+    /**
+     * Background counterpart of {@link #retryTransaction} for {@link TransactionRetryScheduler}: no caller to
+     * authorize, and a transaction that was completed or given up on since it was claimed is left alone.
+     */
+    @Transactional
+    @CacheEvict(value = "balances", allEntries = true)
+    public TransactionStatus retryScheduled(Long id) {
+        if (transactionRepository.lockById(id).isEmpty()) {
+            return null;
+        }
+        Transaction transaction = transactionRepository.findByIdWithAccounts(id).orElseThrow();
+        if (transaction.getStatus() != TransactionStatus.FAILED || transaction.getNextRetryAt() == null) {
+            return transaction.getStatus();
+        }
+        return attemptRetry(transaction).getStatus();
+    }
+
+    /**
+     * Runs a retry of a transaction whose row lock the caller holds, and schedules the next automatic
+     * attempt if it fails again on a version conflict. A business failure (insufficient funds, missing
+     * account) is final and leaves no automatic attempt scheduled.
+     */
+    private Transaction attemptRetry(Transaction transaction) {
         // Re-fetch accounts fresh to avoid stale balances
         Account fromAccount = transaction.getFromAccount() != null
                 ? accountRepository.findById(transaction.getFromAccount().getId())
@@ -136,19 +211,26 @@ public class TransactionService {
                 : null;
 
         transaction.setStatus(TransactionStatus.PENDING);
+        transaction.setAttempts(transaction.getAttempts() + 1);
         transactionRepository.save(transaction);
 
         try {
             executeBalanceUpdate(fromAccount, toAccount, transaction.getAmount(), transaction.getType());
             transaction.setStatus(TransactionStatus.COMPLETED);
-        } catch (InsufficientFundsException | ResourceNotFoundException | ObjectOptimisticLockingFailureException e) {
+            transaction.setNextRetryAt(null);
+            ledgerService.post(transaction);
+        } catch (InsufficientFundsException | ResourceNotFoundException e) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setNextRetryAt(null);
+        } catch (ObjectOptimisticLockingFailureException e) {
             transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setNextRetryAt(retryBackoff.nextAttemptAt(transaction.getAttempts()));
         }
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return transactionMapper.toDTO(savedTransaction);
+        return transactionRepository.save(transaction);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionDTO> getTransactionsByStatus(TransactionStatus status, Pageable pageable) {
         if (isAdmin()) {
             return transactionRepository.findByStatus(status, pageable)
@@ -158,6 +240,7 @@ public class TransactionService {
                 .map(transactionMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public TransactionDTO getTransactionById(Long id) {
         Transaction transaction = transactionRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Transaction not found with id: " + id));
         if (!isAdmin()) {
@@ -171,6 +254,7 @@ public class TransactionService {
         return transactionMapper.toDTO(transaction);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionDTO> getAllTransactions(Pageable pageable) {
         if (!isAdmin()) {
             throw new AccessDeniedException("Access denied");
@@ -179,6 +263,7 @@ public class TransactionService {
                 .map(transactionMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionDTO> getTransactionsByFromAccountId(Long fromAccountId, Pageable pageable) {
         Account account = accountRepository.findById(fromAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + fromAccountId));
@@ -189,6 +274,7 @@ public class TransactionService {
                 .map(transactionMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionDTO> getTransactionsByToAccountId(Long toAccountId, Pageable pageable) {
         Account account = accountRepository.findById(toAccountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found with id: " + toAccountId));
@@ -199,31 +285,65 @@ public class TransactionService {
                 .map(transactionMapper::toDTO);
     }
 
+    private void validateRequest(CreateTransactionRequest request) {
+        switch (request.getType()) {
+            case TRANSFER:
+                if (request.getFromAccountId() == null || request.getToAccountId() == null) {
+                    throw new IllegalArgumentException("Transfer transaction requires both from and to accounts");
+                }
+                if (request.getFromAccountId().equals(request.getToAccountId())) {
+                    throw new IllegalArgumentException("Cannot transfer to the same account");
+                }
+                break;
+            case DEPOSIT:
+                if (request.getToAccountId() == null) {
+                    throw new IllegalArgumentException("Deposit transaction requires to account");
+                }
+                break;
+            case WITHDRAWAL:
+                if (request.getFromAccountId() == null) {
+                    throw new IllegalArgumentException("Withdrawal transaction requires from account");
+                }
+                break;
+        }
+    }
+
+    private void checkOwnership(Account ownedAccount) {
+        if (!isAdmin() && !ownedAccount.getUser().getUsername().equals(currentUsername())) {
+            throw new AccessDeniedException("Access denied");
+        }
+    }
+
     private void executeBalanceUpdate(Account fromAccount, Account toAccount, java.math.BigDecimal amount, com.example.springbootapi.enums.TransactionType type) {
+        transactionMetrics.recordWrite(fromAccount != null ? fromAccount.getId() : null,
+                toAccount != null ? toAccount.getId() : null);
+        Money value = Money.of(amount);
         switch (type) {
             case TRANSFER:
-                if (fromAccount.getBalance().compareTo(amount) < 0) {
-                    throw new InsufficientFundsException("Insufficient funds. Available: " + fromAccount.getBalance() + ", Requested: " + amount);
-                }
-                fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
-                toAccount.setBalance(toAccount.getBalance().add(amount));
+                debit(fromAccount, value);
+                toAccount.setBalance(Money.of(toAccount.getBalance()).plus(value).toBigDecimal());
                 accountRepository.save(fromAccount);
                 accountRepository.save(toAccount);
                 break;
             case DEPOSIT:
-                toAccount.setBalance(toAccount.getBalance().add(amount));
+                toAccount.setBalance(Money.of(toAccount.getBalance()).plus(value).toBigDecimal());
                 accountRepository.save(toAccount);
                 break;
             case WITHDRAWAL:
-                if (fromAccount.getBalance().compareTo(amount) < 0) {
-                    throw new InsufficientFundsException("Insufficient funds. Available: " + fromAccount.getBalance() + ", Requested: " + amount);
-                }
-                fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+                debit(fromAccount, value);
                 accountRepository.save(fromAccount);
                 break;
         }
     }
 
+    private void debit(Account account, Money value) {
+        Money balance = Money.of(account.getBalance());
+        if (balance.isLessThan(value)) {
+            throw new InsufficientFundsException("Insufficient funds. Available: " + account.getBalance() + ", Requested: " + value);
+        }
+        account.setBalance(balance.minus(value).toBigDecimal());
+    }
+
     private Account findAccount(Long accountId) {
         return accountRepository.findById(accountId).orElseThrow(() -> new ResourceNotFoundException("Account not found with id:" + accountId));
     }
@@ -1,5 +1,7 @@
 package com.example.springbootapi.service;
 
+import com.example.springbootapi.cache.EntityVersionCache;
+import com.example.springbootapi.dto.KeysetPage;
 import com.example.springbootapi.dto.UserRequestDTO;
 import com.example.springbootapi.dto.UserResponseDTO;
 import com.example.springbootapi.entity.User;
@@ -7,40 +9,96 @@ import com.example.springbootapi.exception.ResourceNotFoundException;
 import com.example.springbootapi.exception.UserAlreadyExistsException;
 import com.example.springbootapi.mapper.UserMapper;
 import com.example.springbootapi.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final EntityVersionCache entityVersionCache;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    @Value("${listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       EntityVersionCache entityVersionCache) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.entityVersionCache = entityVersionCache;
     }
 
-    public List<UserResponseDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public KeysetPage<UserResponseDTO> getUsers(Long afterId, Integer size) {
+        int limit = pageSize(size);
+        List<UserResponseDTO> users = userRepository.findPageAfter(afterId != null ? afterId : 0L, Limit.of(limit));
+        return KeysetPage.of(users, limit, UserResponseDTO::getId);
+    }
+
+    /**
+     * Hands every user to {@code sink} in id order while a database cursor reads them, so memory use does
+     * not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserResponseDTO> sink) {
+        try (Stream<UserResponseDTO> users = userRepository.streamAll()) {
+            users.forEach(sink);
+        }
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+        return size;
     }
 
-    @Cacheable(value = "users", key = "#id")
+    /**
+     * Concurrent misses for the same user share one load (sync), which runs outside a service transaction so
+     * the callers waiting for it do not hold connections.
+     */
+    @Cacheable(value = "users", key = "#id", sync = true)
     public UserResponseDTO getUserById(Long id) {
         return userRepository.findById(id)
                 .map(userMapper::toResponseDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
     }
 
+    /**
+     * ETag of the user's current version when it is known without loading the user; null means load it.
+     */
+    public String getUserETag(Long id) {
+        EntityVersionCache.Entry entry = entityVersionCache.get(EntityVersionCache.USER, id);
+        return entry != null ? EntityVersionCache.etag(entry.version()) : null;
+    }
+
+    /**
+     * Records the version of a user returned by {@link #getUserById}, which may come from the users cache
+     * without running, and returns its ETag.
+     */
+    public String rememberETag(UserResponseDTO user) {
+        entityVersionCache.putIfAbsent(EntityVersionCache.USER, user.getId(), user.getVersion(), user.getId());
+        return EntityVersionCache.etag(user.getVersion());
+    }
+
     public UserResponseDTO createUser(UserRequestDTO userRequestDTO) {
         if(userRepository.existsByUsername(userRequestDTO.getUsername())) {
             throw new UserAlreadyExistsException("Username '" + userRequestDTO.getUsername() + "' already exists!");
@@ -0,0 +1,266 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.exception.VelocityLimitExceededException;
+import com.example.springbootapi.money.Money;
+import com.example.springbootapi.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-account velocity limits on outflows (withdrawals and outgoing transfers): at most
+ * {@code velocity-limit.max-outflows} of them, and at most {@code velocity-limit.max-outflow-amount} in total,
+ * per rolling {@code velocity-limit.window-ms}. Checked in memory before any balance is touched, so a rejection
+ * costs a map lookup and a pass over a small array.
+ * <p>
+ * Each account has a ring of {@code velocity-limit.buckets} buckets covering one window, and a bucket is replaced
+ * with compare-and-set rather than updated under a lock; the window slides one bucket at a time. An outflow is
+ * added before the limits are checked and taken back if it went over, so concurrent outflows near the limit may
+ * both be rejected but never both admitted. It counts from submission, whether it completes, fails or completes
+ * on a later retry, and is only taken back if its database transaction rolls back.
+ * <p>
+ * At startup the windows are reloaded from the last window of transactions. Outflows admitted on other nodes
+ * arrive over Redis pub/sub once their transaction commits, so with several nodes an account can exceed its
+ * limits by the outflows in flight on the others at the same moment.
+ */
+@Slf4j
+@Component
+public class VelocityLimiter implements MessageListener {
+
+    static final String CHANNEL = "velocity-outflows";
+
+    private final TransactionRepository transactionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final LongSupplier clock;
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final long maxOutflows;
+    private final long maxAmountCents;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VelocityLimiter(TransactionRepository transactionRepository,
+                           StringRedisTemplate redisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           @Value("${velocity-limit.enabled:true}") boolean enabled,
+                           @Value("${velocity-limit.window-ms:3600000}") long windowMillis,
+                           @Value("${velocity-limit.buckets:60}") int bucketCount,
+                           @Value("${velocity-limit.max-outflows:100}") long maxOutflows,
+                           @Value("${velocity-limit.max-outflow-amount:50000.00}") BigDecimal maxAmount) {
+        this(transactionRepository, redisTemplate, listenerContainer, enabled, windowMillis, bucketCount,
+                maxOutflows, maxAmount, System::currentTimeMillis);
+    }
+
+    VelocityLimiter(TransactionRepository transactionRepository, StringRedisTemplate redisTemplate,
+                    RedisMessageListenerContainer listenerContainer, boolean enabled, long windowMillis,
+                    int bucketCount, long maxOutflows, BigDecimal maxAmount, LongSupplier clock) {
+        if (bucketCount < 1 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("velocity-limit.buckets must be between 1 and velocity-limit.window-ms");
+        }
+        this.transactionRepository = transactionRepository;
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.bucketCount = bucketCount;
+        this.bucketMillis = windowMillis / bucketCount;
+        this.maxOutflows = maxOutflows;
+        this.maxAmountCents = toCents(maxAmount);
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    /**
+     * Counts an outflow from the account against its limits, or rejects it if that would exceed either one.
+     * Inside a transaction the outflow is taken back on rollback and announced to the other nodes on commit.
+     */
+    public void reserve(Long accountId, BigDecimal amount) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long cents = toCents(amount);
+        long retryAfterMillis = add(accountId, now, 1, cents, true);
+        if (retryAfterMillis > 0) {
+            throw new VelocityLimitExceededException("Velocity limit exceeded for account " + accountId,
+                    (retryAfterMillis + 999) / 1000);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(accountId, now, cents);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(accountId, now, cents);
+                } else {
+                    add(accountId, now, -1, -cents, false);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ");
+        if (parts.length != 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        add(Long.valueOf(parts[1]), Long.parseLong(parts[2]), 1, Long.parseLong(parts[3]), false);
+    }
+
+    /**
+     * Reloads the outflows of the last window from the database, before this node serves requests or
+     * subscribes to the other nodes' outflows.
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(now - bucketMillis * bucketCount), ZoneId.systemDefault());
+        try {
+            int count = 0;
+            for (TransactionRepository.RecentOutflow outflow : transactionRepository.findOutflowsSince(since)) {
+                long at = outflow.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                add(outflow.getAccountId(), at, 1, toCents(outflow.getAmount()), false);
+                count++;
+            }
+            log.info("Velocity limits rebuilt from {} outflows on {} accounts", count, windows.size());
+        } catch (DataAccessException e) {
+            log.warn("Rebuilding velocity limits failed; outflows before startup are not counted", e);
+        }
+    }
+
+    /**
+     * Drops the windows of accounts without outflows in the current window.
+     */
+    @Scheduled(fixedDelayString = "${velocity-limit.window-ms:3600000}")
+    public void evictIdle() {
+        long epoch = clock.getAsLong() / bucketMillis;
+        windows.values().removeIf(window -> window.isIdle(epoch, bucketCount));
+    }
+
+    /**
+     * Adds to the account's bucket for {@code at}. With {@code check}, takes the addition back if the window
+     * is then over a limit and returns how long until its oldest bucket leaves the window; otherwise returns 0.
+     */
+    private long add(Long accountId, long at, long count, long cents, boolean check) {
+        long epoch = at / bucketMillis;
+        while (true) {
+            Window window = windows.computeIfAbsent(accountId, id -> new Window(bucketCount));
+            window.add(epoch, bucketCount, count, cents);
+            if (windows.get(accountId) != window) {
+                continue; // evicted meanwhile, the addition went to a discarded window
+            }
+            if (!check) {
+                return 0;
+            }
+            long[] totals = window.totals(epoch, bucketCount);
+            boolean over = (maxOutflows > 0 && totals[0] > maxOutflows)
+                    || (maxAmountCents > 0 && totals[1] > maxAmountCents);
+            if (!over) {
+                return 0;
+            }
+            window.add(epoch, bucketCount, -count, -cents);
+            return Math.max(1, (totals[2] + bucketCount) * bucketMillis - at);
+        }
+    }
+
+    private void publish(Long accountId, long at, long cents) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + " " + accountId + " " + at + " " + cents);
+        } catch (DataAccessException e) {
+            log.warn("Publishing an outflow of account {} failed; other nodes do not count it", accountId, e);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return Money.of(amount).cents();
+    }
+
+    private record Bucket(long epoch, long count, long cents) {
+    }
+
+    private static final class Window {
+        private final AtomicReferenceArray<Bucket> buckets;
+
+        Window(int bucketCount) {
+            buckets = new AtomicReferenceArray<>(bucketCount);
+        }
+
+        void add(long epoch, int bucketCount, long count, long cents) {
+            int slot = (int) Math.floorMod(epoch, (long) bucketCount);
+            while (true) {
+                Bucket current = buckets.get(slot);
+                Bucket next;
+                if (current == null || current.epoch() < epoch) {
+                    next = new Bucket(epoch, count, cents);
+                } else if (current.epoch() == epoch) {
+                    next = new Bucket(epoch, current.count() + count, current.cents() + cents);
+                } else {
+                    return; // the slot already holds a later bucket, this one has left the window
+                }
+                if (buckets.compareAndSet(slot, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Outflow count, amount in cents and oldest non-empty bucket of the window ending at {@code epoch}.
+         */
+        long[] totals(long epoch, int bucketCount) {
+            long count = 0;
+            long cents = 0;
+            long oldest = epoch;
+            for (int i = 0; i < bucketCount; i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.epoch() > epoch - bucketCount && bucket.epoch() <= epoch) {
+                    count += bucket.count();
+                    cents += bucket.cents();
+                    if (bucket.count() > 0) {
+                        oldest = Math.min(oldest, bucket.epoch());
+                    }
+                }
+            }
+            return new long[] {count, cents, oldest};
+        }
+
+        boolean isIdle(long epoch, int bucketCount) {
+            for (int i = 0; i < bucketCount; i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.epoch() > epoch - bucketCount) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Money in / money out per account and day, maintained by the ledger as transactions complete.
+-- The day is that of the ledger entry. Rebuildable from ledger_entries at any time.
+CREATE TABLE daily_account_rollups (
+    account_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    inflow DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    outflow DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    inflow_count INT NOT NULL DEFAULT 0,
+    outflow_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_id, day),
+    CONSTRAINT fk_rollup_account FOREIGN KEY (account_id) REFERENCES accounts(id) ON DELETE CASCADE
+);
+
+INSERT INTO daily_account_rollups (account_id, day, inflow, outflow, inflow_count, outflow_count)
+SELECT account_id, CAST(created_at AS DATE),
+       SUM(CASE WHEN direction = 'CREDIT' THEN amount ELSE 0 END),
+       SUM(CASE WHEN direction = 'DEBIT' THEN amount ELSE 0 END),
+       COUNT(*) FILTER (WHERE direction = 'CREDIT'),
+       COUNT(*) FILTER (WHERE direction = 'DEBIT')
+FROM ledger_entries
+WHERE account_id IS NOT NULL
+GROUP BY account_id, CAST(created_at AS DATE);
@@ -0,0 +1,3 @@
+-- Lets the velocity limiter reload the last window of outflows at startup without scanning older transactions
+CREATE INDEX idx_transactions_outflow_created_at ON transactions(created_at) INCLUDE (from_account_id, amount)
+    WHERE from_account_id IS NOT NULL;
@@ -0,0 +1,22 @@
+-- Append-only double-entry ledger: every COMPLETED transaction posts exactly one DEBIT and one CREDIT.
+-- account_id is NULL on the external side of deposits (DEBIT) and withdrawals (CREDIT).
+CREATE TABLE ledger_entries (
+    id BIGSERIAL PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    account_id BIGINT,
+    direction VARCHAR(10) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL CHECK (amount > 0),
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_ledger_transaction FOREIGN KEY (transaction_id) REFERENCES transactions(id),
+    CONSTRAINT fk_ledger_account FOREIGN KEY (account_id) REFERENCES accounts(id),
+    CONSTRAINT uq_ledger_transaction_direction UNIQUE (transaction_id, direction)
+);
+
+CREATE INDEX idx_ledger_entries_account ON ledger_entries(account_id);
+
+-- Backfill from the transactions that already moved money
+INSERT INTO ledger_entries (transaction_id, account_id, direction, amount, created_at)
+SELECT id, from_account_id, 'DEBIT', amount, updated_at FROM transactions WHERE status = 'COMPLETED';
+
+INSERT INTO ledger_entries (transaction_id, account_id, direction, amount, created_at)
+SELECT id, to_account_id, 'CREDIT', amount, updated_at FROM transactions WHERE status = 'COMPLETED';
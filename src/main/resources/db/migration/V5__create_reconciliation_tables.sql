@@ -0,0 +1,32 @@
+CREATE TABLE reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    triggered_by VARCHAR(255) NOT NULL,
+    ranges_total INT NOT NULL DEFAULT 0,
+    ranges_done INT NOT NULL DEFAULT 0,
+    accounts_checked BIGINT NOT NULL DEFAULT 0,
+    mismatches BIGINT NOT NULL DEFAULT 0,
+    error VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP
+);
+
+-- At most one RUNNING reconciliation across all nodes
+CREATE UNIQUE INDEX uq_reconciliation_runs_running ON reconciliation_runs (status) WHERE status = 'RUNNING';
+
+CREATE TABLE reconciliation_mismatches (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    stored_balance DECIMAL(19, 2) NOT NULL,
+    expected_balance DECIMAL(19, 2) NOT NULL,
+    detected_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_mismatch_run FOREIGN KEY (run_id) REFERENCES reconciliation_runs(id)
+);
+
+CREATE INDEX idx_reconciliation_mismatches_run ON reconciliation_mismatches(run_id, account_id);
+
+-- Per-range aggregation of COMPLETED amounts by account, answerable from the index alone
+CREATE INDEX idx_transactions_from_completed ON transactions(from_account_id) INCLUDE (amount) WHERE status = 'COMPLETED';
+CREATE INDEX idx_transactions_to_completed ON transactions(to_account_id) INCLUDE (amount) WHERE status = 'COMPLETED';
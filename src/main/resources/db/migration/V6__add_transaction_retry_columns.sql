@@ -0,0 +1,6 @@
+ALTER TABLE transactions
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN next_retry_at TIMESTAMP;
+
+-- Only FAILED rows that are still scheduled for a retry are indexed, so claiming stays cheap
+CREATE INDEX idx_transactions_retry_due ON transactions(next_retry_at) WHERE status = 'FAILED' AND next_retry_at IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Lets the PENDING sweeper find stale rows oldest-first without scanning finished transactions
+CREATE INDEX idx_transactions_pending_updated_at ON transactions(updated_at) WHERE status = 'PENDING';
@@ -0,0 +1,2 @@
+-- Queued transactions are the asynchronous submission queue; workers claim them oldest-first by id
+CREATE INDEX idx_transactions_queued ON transactions(id) WHERE status = 'QUEUED';
@@ -0,0 +1,2 @@
+-- Optimistic-lock version for users; also backs the ETag of GET /api/users/{id}
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,91 @@
+package com.example.springbootapi.cache;
+
+import com.example.springbootapi.dto.UserResponseDTO;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import com.example.springbootapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CacheWarmerTest {
+
+    private final DailyAccountRollupRepository dailyAccountRollupRepository = mock(DailyAccountRollupRepository.class);
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EntityVersionCache entityVersionCache = mock(EntityVersionCache.class);
+    private final CacheManager cacheManager = mock(CacheManager.class);
+    private final Cache usersCache = mock(Cache.class);
+    private CacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        warmer = new CacheWarmer(dailyAccountRollupRepository, accountRepository, userRepository,
+                entityVersionCache, cacheManager);
+        ReflectionTestUtils.setField(warmer, "enabled", true);
+        ReflectionTestUtils.setField(warmer, "maxAccounts", 100);
+        ReflectionTestUtils.setField(warmer, "lookbackDays", 7);
+        ReflectionTestUtils.setField(warmer, "batchSize", 2);
+        ReflectionTestUtils.setField(warmer, "parallelism", 2);
+        ReflectionTestUtils.setField(warmer, "budgetMillis", 5000L);
+        when(cacheManager.getCache("users")).thenReturn(usersCache);
+    }
+
+    @Test
+    void warm_ActiveAccounts_CachesVersionsAndOwners() {
+        // ARRANGE
+        when(dailyAccountRollupRepository.findMostActiveAccountIds(any(), eq(100))).thenReturn(List.of(1L, 2L));
+        when(accountRepository.findVersionsAndOwners(List.of(1L, 2L)))
+                .thenReturn(List.of(account(1L, 3L, 10L), account(2L, 0L, 10L)));
+        UserResponseDTO owner = UserResponseDTO.builder().id(10L).username("owner").version(4L).build();
+        when(userRepository.findDTOsByIdIn(Set.of(10L))).thenReturn(List.of(owner));
+
+        // ACT
+        int warmed = warmer.warm();
+
+        // ASSERT
+        assertEquals(2, warmed);
+        verify(entityVersionCache).putAllIfAbsent(EntityVersionCache.ACCOUNT, Map.of(
+                1L, new EntityVersionCache.Entry(3L, 10L), 2L, new EntityVersionCache.Entry(0L, 10L)));
+        verify(usersCache).putIfAbsent(10L, owner);
+        verify(entityVersionCache).putAllIfAbsent(EntityVersionCache.USER, Map.of(10L, new EntityVersionCache.Entry(4L, 10L)));
+    }
+
+    @Test
+    void warm_BudgetExhausted_ReturnsWithoutWaitingForSlowBatches() {
+        // ARRANGE
+        ReflectionTestUtils.setField(warmer, "budgetMillis", 200L);
+        when(dailyAccountRollupRepository.findMostActiveAccountIds(any(), anyInt())).thenReturn(List.of(1L, 2L, 3L));
+        when(accountRepository.findVersionsAndOwners(List.of(1L, 2L))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+        when(accountRepository.findVersionsAndOwners(List.of(3L))).thenReturn(List.of(account(3L, 1L, 10L)));
+
+        // ACT
+        long started = System.nanoTime();
+        int warmed = warmer.warm();
+
+        // ASSERT
+        assertTrue(System.nanoTime() - started < 5_000_000_000L, "Warm-up overran its budget");
+        assertEquals(1, warmed);
+    }
+
+    private static AccountRepository.VersionAndOwner account(Long id, Long version, Long ownerId) {
+        return new AccountRepository.VersionAndOwner() {
+            public Long getId() { return id; }
+            public Long getVersion() { return version; }
+            public Long getOwnerId() { return ownerId; }
+        };
+    }
+}
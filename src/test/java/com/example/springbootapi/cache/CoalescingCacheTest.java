@@ -0,0 +1,80 @@
+package com.example.springbootapi.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingCacheTest {
+
+    private static final long TTL_MS = 600_000;
+
+    private final ConcurrentMapCache target = new ConcurrentMapCache("users");
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_Miss_LoadsOnceAndStoresStampedValue() {
+        CoalescingCache cache = new CoalescingCache(target, TTL_MS, 1.0, now::get, () -> 0.5);
+
+        assertEquals("alice", cache.get(1L, this::load));
+        assertEquals("alice", cache.get(1L, this::load));
+
+        assertEquals(1, loads.get());
+        assertInstanceOf(CoalescingCache.Stamped.class, target.get(1L).get());
+        assertEquals("alice", cache.get(1L, String.class));
+    }
+
+    @Test
+    void get_FarFromExpiry_ServesCachedValue() {
+        CoalescingCache cache = new CoalescingCache(target, TTL_MS, 1.0, now::get, () -> 0.01);
+        target.put(1L, new CoalescingCache.Stamped("old", now.get() + TTL_MS, 100));
+
+        // -100 ms * ln(0.01) is about 460 ms, far less than the ten minutes left
+        assertEquals("old", cache.get(1L, this::load));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void get_CloseToExpiry_RefreshesEarly() {
+        CoalescingCache cache = new CoalescingCache(target, TTL_MS, 1.0, now::get, () -> 0.01);
+        target.put(1L, new CoalescingCache.Stamped("old", now.get() + 300, 100));
+
+        assertEquals("alice", cache.get(1L, this::load));
+
+        assertEquals(1, loads.get());
+        CoalescingCache.Stamped stored = (CoalescingCache.Stamped) target.get(1L).get();
+        assertEquals(now.get() + TTL_MS, stored.expiresAt());
+    }
+
+    @Test
+    void get_EarlyRefreshOff_StoresPlainValuesAndReadsStampedOnes() {
+        CoalescingCache cache = new CoalescingCache(target, TTL_MS, 0, now::get, () -> 0.01);
+        target.put(2L, new CoalescingCache.Stamped("bob", now.get() + 1, 100));
+
+        assertEquals("alice", cache.get(1L, this::load));
+        assertEquals("bob", cache.get(2L, this::load));
+
+        assertEquals("alice", target.get(1L).get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_LoaderFails_ThrowsValueRetrievalException() {
+        CoalescingCache cache = new CoalescingCache(target, TTL_MS, 1.0, now::get, () -> 0.5);
+
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> { throw new IllegalStateException("database down"); }));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertNull(target.get(1L));
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "alice";
+    }
+}
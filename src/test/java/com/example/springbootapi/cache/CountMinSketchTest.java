@@ -0,0 +1,34 @@
+package com.example.springbootapi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountMinSketchTest {
+
+    @Test
+    void estimate_SkewedCounts_NeverLowAndCloseForHeavyKeys() {
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        for (long key = 0; key < 10_000; key++) {
+            sketch.add(key, 1 + key % 3);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add(42, 1);
+        }
+
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(sketch.estimate(key) >= 1 + key % 3);
+        }
+        long heavy = sketch.estimate(42);
+        assertTrue(heavy >= 5_001 && heavy <= 5_101, "Estimate too high: " + heavy);
+    }
+
+    @Test
+    void add_ReturnsEstimateIncludingCount() {
+        CountMinSketch sketch = new CountMinSketch(64, 2);
+
+        assertEquals(3, sketch.add(7, 3));
+        assertEquals(5, sketch.add(7, 2));
+        assertEquals(5, sketch.estimate(7));
+    }
+}
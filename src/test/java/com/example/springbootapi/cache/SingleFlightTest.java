@@ -0,0 +1,101 @@
+package com.example.springbootapi.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<Long, String> flight = new SingleFlight<>();
+    private final AtomicInteger arrived = new AtomicInteger();
+
+    @Test
+    void load_ConcurrentCallersForSameKey_ShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> arriveAndLoad(() -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "user-1";
+                })));
+            }
+            awaitJoined(results);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("user-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0, flight.inFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_LoaderFails_EveryWaitingCallerGetsTheException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> arriveAndLoad(() -> {
+                    await(release);
+                    throw new IllegalStateException("database down");
+                })));
+            }
+            awaitJoined(results);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+            assertEquals("loaded again", flight.load(1L, () -> "loaded again"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private String arriveAndLoad(Supplier<String> loader) {
+        arrived.incrementAndGet();
+        return flight.load(1L, loader);
+    }
+
+    /**
+     * Waits until every caller has reached the flight, so none of them starts a second load after the release.
+     */
+    private void awaitJoined(List<Future<String>> results) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (arrived.get() < CALLERS && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+        assertFalse(results.stream().anyMatch(Future::isDone), "A caller finished before the load was released");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.springbootapi.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(100, 0.0, 2);
+
+    @Test
+    void fingerprint_CollapsesLiteralsAndInLists() {
+        assertEquals("select * from accounts where id in (?) and account_number=?",
+                SlowQueryLog.fingerprint("SELECT *  FROM accounts\n WHERE id IN (?, ?, ?) AND account_number='ACC123'"));
+        assertEquals(SlowQueryLog.fingerprint("select a1_0.id from accounts a1_0 where a1_0.id=42"),
+                SlowQueryLog.fingerprint("select a1_0.id from accounts a1_0 where a1_0.id=7"));
+    }
+
+    @Test
+    void afterQuery_BelowThreshold_NotRecorded() {
+        slowQueryLog.afterQuery(execution(99), queries("select 1"));
+
+        assertEquals(0, slowQueryLog.trackedFingerprints());
+    }
+
+    @Test
+    void afterQuery_AboveThreshold_AggregatedByFingerprint() {
+        slowQueryLog.afterQuery(execution(150), queries("select * from accounts where id=1"));
+        slowQueryLog.afterQuery(execution(250), queries("select * from accounts where id=2"));
+
+        List<SlowQueryLog.FingerprintStats> top = slowQueryLog.top(10);
+        assertEquals(1, top.size());
+        assertEquals(2, top.get(0).count());
+        assertEquals(400, top.get(0).totalMs());
+        assertEquals(250, top.get(0).maxMs());
+    }
+
+    @Test
+    void afterQuery_FingerprintLimitReached_CountsAsUntracked() {
+        slowQueryLog.afterQuery(execution(150), queries("select * from users"));
+        slowQueryLog.afterQuery(execution(150), queries("select * from accounts"));
+        slowQueryLog.afterQuery(execution(150), queries("select * from transactions"));
+
+        assertEquals(2, slowQueryLog.trackedFingerprints());
+        assertEquals(1, slowQueryLog.untrackedSlowQueries());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static List<QueryInfo> queries(String sql) {
+        return List.of(new QueryInfo(sql));
+    }
+}
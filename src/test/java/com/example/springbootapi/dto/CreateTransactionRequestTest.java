@@ -0,0 +1,49 @@
+package com.example.springbootapi.dto;
+
+import com.example.springbootapi.enums.TransactionType;
+import com.example.springbootapi.money.Money;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CreateTransactionRequestTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void amount_LargestAllowed_ValidAndConvertsToMoney() {
+        BigDecimal largest = new BigDecimal("999999999999999.99");
+
+        assertTrue(validator.validate(deposit(largest)).isEmpty());
+        assertEquals(99999999999999999L, Money.of(largest).cents());
+    }
+
+    @Test
+    void amount_BeyondFifteenDigits_Rejected() {
+        assertFalse(validator.validate(deposit(new BigDecimal("1000000000000000.00"))).isEmpty());
+        assertFalse(validator.validate(deposit(new BigDecimal("92233720368547758.08"))).isEmpty());
+    }
+
+    private static CreateTransactionRequest deposit(BigDecimal amount) {
+        return new CreateTransactionRequest(null, 1L, amount, TransactionType.DEPOSIT);
+    }
+}
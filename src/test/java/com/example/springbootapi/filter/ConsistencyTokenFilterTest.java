@@ -0,0 +1,63 @@
+package com.example.springbootapi.filter;
+
+import com.example.springbootapi.datasource.ReadYourWritesContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistencyTokenFilterTest {
+
+    private static final long WINDOW_MS = 5_000;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    private final ConsistencyTokenFilter filter = new ConsistencyTokenFilter(
+            "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII), WINDOW_MS, 1_000, now::get);
+
+    @Test
+    void issuedToken_InsideWindow_PinsToPrimaryUntilItExpires() throws Exception {
+        String token = filter.issueToken();
+
+        now.addAndGet(WINDOW_MS - 1);
+        assertTrue(primaryRequiredWith(token));
+        now.addAndGet(1);
+        assertFalse(primaryRequiredWith(token));
+        assertFalse(ReadYourWritesContext.isPrimaryRequired());
+    }
+
+    @Test
+    void futureDatedToken_Ignored() throws Exception {
+        now.addAndGet(3_600_000);
+        String token = filter.issueToken();
+        now.addAndGet(-3_600_000);
+
+        assertFalse(primaryRequiredWith(token));
+        assertFalse(primaryRequiredWith("9999999999999"));
+    }
+
+    @Test
+    void forgedToken_Ignored() throws Exception {
+        String token = filter.issueToken();
+        String otherTime = (now.get() + 1) + token.substring(token.indexOf('.'));
+        ConsistencyTokenFilter otherKey = new ConsistencyTokenFilter(
+                "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII), WINDOW_MS, 1_000, now::get);
+
+        assertFalse(primaryRequiredWith(otherTime));
+        assertFalse(primaryRequiredWith(otherKey.issueToken()));
+        assertFalse(primaryRequiredWith(now.get() + ".not-a-signature"));
+    }
+
+    private boolean primaryRequiredWith(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.addHeader(ConsistencyTokenFilter.HEADER, token);
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> primaryRequired.set(ReadYourWritesContext.isPrimaryRequired()));
+        return primaryRequired.get();
+    }
+}
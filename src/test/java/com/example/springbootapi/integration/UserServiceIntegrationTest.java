@@ -43,7 +43,7 @@ public class UserServiceIntegrationTest extends BaseIntegrationTest {
         // Verify it exists in the real DB
         assertTrue(userRepository.existsById(savedUser.getId()));
         
-        List<UserResponseDTO> allUsers = userService.getAllUsers();
+        List<UserResponseDTO> allUsers = userService.getUsers(null, null).getContent();
         assertEquals(1, allUsers.size());
     }
 
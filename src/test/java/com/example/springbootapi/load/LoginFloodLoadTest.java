@@ -0,0 +1,167 @@
+package com.example.springbootapi.load;
+
+import com.example.springbootapi.dto.CreateAccountRequest;
+import com.example.springbootapi.dto.UserRequestDTO;
+import com.example.springbootapi.service.AccountService;
+import com.example.springbootapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of an ordinary authenticated endpoint ({@code GET /api/accounts/{id}}) on its own and while many
+ * clients hammer {@code POST /api/auth/login} with wrong passwords, over real HTTP against the database and
+ * Redis configured in application.properties. Rate limits are lifted so every login reaches the password
+ * check, as with a credential-stuffing botnet spread over many addresses. Skipped unless -Dload.enabled=true.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=LoginFloodLoadTest -Dload.enabled=true -Dload.flood-threads=256 -Dload.probes=2000
+ * </pre>
+ *
+ * With password hashing on its own bounded pool the flood mostly gets 503s and the probe latency stays close
+ * to the baseline. Add {@code -Dload.password-pool=false} to hash on the request threads for comparison.
+ * The flood clients run in the same JVM, so on a machine with few cores they compete with the server too.
+ */
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "rate-limit.login.max-requests=100000000",
+        "rate-limit.default.max-requests=100000000",
+        "password-hashing.enabled=${load.password-pool:true}"
+})
+public class LoginFloodLoadTest {
+
+    private static final int FLOOD_THREADS = Integer.getInteger("load.flood-threads", 256);
+    private static final int PROBES = Integer.getInteger("load.probes", 2000);
+
+    @Autowired private UserService userService;
+    @Autowired private AccountService accountService;
+    @Autowired private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private String username;
+    private String accessToken;
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        username = "flood" + System.currentTimeMillis() % 1_000_000_000L;
+        UserRequestDTO userRequest = new UserRequestDTO();
+        userRequest.setUsername(username);
+        userRequest.setPassword("password");
+        Long userId = userService.createUser(userRequest).getId();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "load", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        try {
+            accountId = accountService.createAccount(new CreateAccountRequest(userId)).getId();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        HttpResponse<String> login = client.send(loginRequest("password"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, login.statusCode(), login.body());
+        accessToken = objectMapper.readTree(login.body()).get("accessToken").asText();
+    }
+
+    @Test
+    void loginFlood_LeavesOtherEndpointsResponsive() throws Exception {
+        long[] baseline = probe();
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        Map<Integer, LongAdder> loginStatuses = new ConcurrentHashMap<>();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        for (int t = 0; t < FLOOD_THREADS; t++) {
+            flood.submit(() -> {
+                while (flooding.get()) {
+                    int status;
+                    try {
+                        status = client.send(loginRequest("wrong-password"), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    loginStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                }
+                return null;
+            });
+        }
+        Thread.sleep(2000); // let the flood saturate the hashing pool first
+        long[] underFlood;
+        try {
+            underFlood = probe();
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+            assertTrue(flood.awaitTermination(1, TimeUnit.MINUTES), "Flood threads did not stop");
+        }
+
+        System.out.printf("%n=== Login flood: %d flood threads, %d probes of GET /api/accounts/{id} ===%n", FLOOD_THREADS, PROBES);
+        report("Baseline (ms)   ", baseline);
+        report("Under flood (ms)", underFlood);
+        System.out.printf("Login statuses  : %s (-1 = connection error)%n", loginStatuses);
+    }
+
+    /**
+     * Sequential GETs of the test account; fails on any non-200 so a starved server cannot pass unnoticed.
+     */
+    private long[] probe() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts/" + accountId))
+                .header("Authorization", "Bearer " + accessToken)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long[] latencies = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            long started = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = System.nanoTime() - started;
+            assertEquals(200, response.statusCode(), "Probe " + i + " failed");
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private HttpRequest loginRequest(String password) {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void report(String label, long[] sorted) {
+        System.out.printf("%s: p50=%.2f p95=%.2f p99=%.2f max=%.2f%n", label,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
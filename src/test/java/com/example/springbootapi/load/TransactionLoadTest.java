@@ -0,0 +1,217 @@
+package com.example.springbootapi.load;
+
+import com.example.springbootapi.dto.CreateAccountRequest;
+import com.example.springbootapi.dto.CreateTransactionRequest;
+import com.example.springbootapi.dto.TransactionDTO;
+import com.example.springbootapi.dto.UserRequestDTO;
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.enums.TransactionType;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.service.AccountService;
+import com.example.springbootapi.service.TransactionService;
+import com.example.springbootapi.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mixed TRANSFER/DEPOSIT/WITHDRAWAL load against TransactionService on the database configured in
+ * application.properties (a local PostgreSQL and Redis, not TestContainers). Skipped unless -Dload.enabled=true.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=TransactionLoadTest -Dload.enabled=true -Dload.accounts=2000 -Dload.threads=32 -Dload.operations=20000
+ * </pre>
+ *
+ * Every run creates its own user and accounts and leaves them in place; only those accounts are checked.
+ */
+@EnabledIfSystemProperty(named = "load.enabled", matches = "true")
+@SpringBootTest(properties = "velocity-limit.enabled=false")
+public class TransactionLoadTest {
+
+    private static final int ACCOUNTS = Integer.getInteger("load.accounts", 2000);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final int OPERATIONS = Integer.getInteger("load.operations", 20000);
+    private static final int TRANSFER_PERCENT = Integer.getInteger("load.transfer-percent", 60);
+    private static final int DEPOSIT_PERCENT = Integer.getInteger("load.deposit-percent", 20);
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal(System.getProperty("load.initial-balance", "1000.00"));
+    private static final int MAX_AMOUNT_CENTS = Integer.getInteger("load.max-amount-cents", 50000);
+
+    @Autowired private TransactionService transactionService;
+    @Autowired private AccountService accountService;
+    @Autowired private UserService userService;
+    @Autowired private AccountRepository accountRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        runAsAdmin();
+
+        UserRequestDTO userRequest = new UserRequestDTO();
+        userRequest.setUsername("load" + System.currentTimeMillis() % 1_000_000_000L);
+        userRequest.setPassword("password");
+        Long userId = userService.createUser(userRequest).getId();
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Long accountId = accountService.createAccount(new CreateAccountRequest(userId)).getId();
+            accountIds.add(accountId);
+            if (INITIAL_BALANCE.signum() > 0) {
+                transactionService.createTransaction(request(TransactionType.DEPOSIT, null, accountId, INITIAL_BALANCE));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void mixedWorkload_ConservesMoney_AndNeverGoesNegative() throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder errors = new LongAdder();
+        // Money entering/leaving the system, in cents, counted only for COMPLETED deposits/withdrawals
+        AtomicLong depositedCents = new AtomicLong(INITIAL_BALANCE.movePointRight(2).longValueExact() * ACCOUNTS);
+        AtomicLong withdrawnCents = new AtomicLong();
+
+        long[] latencies = new long[OPERATIONS];
+        AtomicInteger nextOperation = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            executor.submit(() -> {
+                runAsAdmin();
+                try {
+                    startGate.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int op;
+                    while ((op = nextOperation.getAndIncrement()) < OPERATIONS) {
+                        CreateTransactionRequest request = randomRequest(random);
+                        long started = System.nanoTime();
+                        try {
+                            TransactionDTO result = transactionService.createTransaction(request);
+                            if (result.getStatus() == TransactionStatus.COMPLETED) {
+                                completed.increment();
+                                long cents = request.getAmount().movePointRight(2).longValueExact();
+                                if (request.getType() == TransactionType.DEPOSIT) {
+                                    depositedCents.addAndGet(cents);
+                                } else if (request.getType() == TransactionType.WITHDRAWAL) {
+                                    withdrawnCents.addAndGet(cents);
+                                }
+                            } else {
+                                failed.increment();
+                            }
+                        } catch (ObjectOptimisticLockingFailureException e) {
+                            conflicts.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        } finally {
+                            latencies[op] = System.nanoTime() - started;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+        }
+
+        long runStarted = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.HOURS), "Load run did not finish within an hour");
+        double elapsedSeconds = (System.nanoTime() - runStarted) / 1e9;
+
+        report(elapsedSeconds, latencies, completed.sum(), failed.sum(), conflicts.sum(), errors.sum());
+
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            assertTrue(account.getBalance().signum() >= 0,
+                    "Account " + account.getId() + " went negative: " + account.getBalance());
+            total = total.add(account.getBalance());
+        }
+        BigDecimal expected = BigDecimal.valueOf(depositedCents.get() - withdrawnCents.get(), 2);
+        assertEquals(0, expected.compareTo(total),
+                "Money not conserved: expected " + expected + " (deposits - withdrawals), found " + total);
+        assertEquals(0, errors.sum(), "Unexpected errors during the run");
+    }
+
+    private CreateTransactionRequest randomRequest(ThreadLocalRandom random) {
+        BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(MAX_AMOUNT_CENTS), 2);
+        Long from = accountIds.get(random.nextInt(accountIds.size()));
+        int roll = random.nextInt(100);
+        if (roll < TRANSFER_PERCENT) {
+            Long to = from;
+            while (to.equals(from)) {
+                to = accountIds.get(random.nextInt(accountIds.size()));
+            }
+            return request(TransactionType.TRANSFER, from, to, amount);
+        }
+        if (roll < TRANSFER_PERCENT + DEPOSIT_PERCENT) {
+            return request(TransactionType.DEPOSIT, null, from, amount);
+        }
+        return request(TransactionType.WITHDRAWAL, from, null, amount);
+    }
+
+    private static CreateTransactionRequest request(TransactionType type, Long from, Long to, BigDecimal amount) {
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setType(type);
+        request.setFromAccountId(from);
+        request.setToAccountId(to);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static void report(double elapsedSeconds, long[] latencies, long completed, long failed, long conflicts, long errors) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long total = completed + failed + conflicts + errors;
+        System.out.printf("%n=== Transaction load: %d ops, %d threads, %d accounts ===%n", total, THREADS, ACCOUNTS);
+        System.out.printf("Throughput      : %.1f tx/s over %.1f s%n", total / elapsedSeconds, elapsedSeconds);
+        System.out.printf("Latency (ms)    : p50=%.2f p95=%.2f p99=%.2f max=%.2f%n",
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+        System.out.printf("Outcomes        : completed=%d failed=%d conflict=%d error=%d%n", completed, failed, conflicts, errors);
+        System.out.printf("FAILED ratio    : %.2f%%%n", total == 0 ? 0 : 100.0 * failed / total);
+        System.out.printf("Conflict ratio  : %.2f%%%n", total == 0 ? 0 : 100.0 * conflicts / total);
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static void runAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("load", null,
+                        List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+        );
+    }
+}
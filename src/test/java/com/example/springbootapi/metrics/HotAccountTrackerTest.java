@@ -0,0 +1,94 @@
+package com.example.springbootapi.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class HotAccountTrackerTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private HotAccountTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new HotAccountTracker(events, 1024, 4, 3, 100, 5, WINDOW_MS, now::get);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_TopAccountsByWritesInDescendingOrder() {
+        // ARRANGE
+        for (long account = 1; account <= 10; account++) {
+            for (int i = 0; i < account * 5; i++) {
+                tracker.recordWrite(account, null);
+            }
+        }
+        now.addAndGet(10_000);
+
+        // ACT
+        Map<String, Object> current = (Map<String, Object>) tracker.report(10).get("currentWindow");
+
+        // ASSERT
+        List<HotAccountTracker.HotAccount> top = (List<HotAccountTracker.HotAccount>) current.get("byWrites");
+        assertEquals(List.of(10L, 9L, 8L), top.stream().map(HotAccountTracker.HotAccount::accountId).toList());
+        assertEquals(50, top.get(0).writes());
+        assertEquals(5.0, top.get(0).writesPerSecond(), 0.001);
+    }
+
+    @Test
+    void recordConflict_ThresholdReached_HotEventPublishedOnce() {
+        // ACT
+        for (int i = 0; i < 8; i++) {
+            tracker.recordConflict(7L, 8L);
+        }
+
+        // ASSERT
+        verify(events).publishEvent(new HotAccountEvent(7L, true, 0, 5));
+        verify(events).publishEvent(new HotAccountEvent(8L, true, 0, 5));
+        verifyNoMoreInteractions(events);
+        assertEquals(Set.of(7L, 8L), tracker.hotAccounts());
+    }
+
+    @Test
+    void roll_HotAccountQuietForWholeWindow_CooledEventPublished() {
+        // ARRANGE
+        for (int i = 0; i < 100; i++) {
+            tracker.recordWrite(7L, null);
+        }
+        tracker.roll();
+        for (int i = 0; i < 10; i++) {
+            tracker.recordWrite(7L, null);
+        }
+
+        // ACT
+        tracker.roll();
+
+        // ASSERT
+        verify(events).publishEvent(new HotAccountEvent(7L, true, 100, 0));
+        verify(events).publishEvent(new HotAccountEvent(7L, false, 10, 0));
+        assertTrue(tracker.hotAccounts().isEmpty());
+    }
+
+    @Test
+    void lastWindowTopConflicts_EmptyUntilFirstRoll() {
+        tracker.recordConflict(7L, null);
+        assertTrue(tracker.lastWindowTopConflicts().isEmpty());
+
+        tracker.roll();
+
+        assertEquals(1, tracker.lastWindowTopConflicts().get(0).conflicts());
+        verify(events, never()).publishEvent(any(HotAccountEvent.class));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.springbootapi.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void of_AnyScaleUpToTwoDecimals_RoundTripsAtScaleTwo() {
+        assertEquals(12345, Money.of(new BigDecimal("123.45")).cents());
+        assertEquals(new BigDecimal("100.00"), Money.of(new BigDecimal("1E+2")).toBigDecimal());
+        assertEquals(new BigDecimal("0.50"), Money.of(new BigDecimal("0.500")).toBigDecimal());
+        assertEquals(new BigDecimal("-7.10"), Money.of(new BigDecimal("-7.1")).toBigDecimal());
+    }
+
+    @Test
+    void of_FractionOfACent_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("0.015")));
+    }
+
+    @Test
+    void arithmetic_BeyondRangeOfCents_ThrowsInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+        assertEquals(Money.ofCents(Long.MAX_VALUE), Money.of(new BigDecimal("92233720368547758.07")));
+    }
+}
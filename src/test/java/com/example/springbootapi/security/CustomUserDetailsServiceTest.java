@@ -0,0 +1,49 @@
+package com.example.springbootapi.security;
+
+import com.example.springbootapi.entity.User;
+import com.example.springbootapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    void updatePassword_HashUnchangedSinceLogin_StoresNewHash() {
+        // ARRANGE
+        User user = User.builder().id(1L).username("testuser").password("$2a$10$old").build();
+        when(userRepository.replacePasswordHash(1L, "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(1);
+
+        // ACT
+        UserDetails result = customUserDetailsService.updatePassword(user, "{bcrypt}$2a$12$new");
+
+        // ASSERT
+        assertEquals("{bcrypt}$2a$12$new", result.getPassword());
+    }
+
+    @Test
+    void updatePassword_PasswordChangedMeanwhile_KeepsLoadedHash() {
+        // ARRANGE
+        User user = User.builder().id(1L).username("testuser").password("$2a$10$old").build();
+        when(userRepository.replacePasswordHash(1L, "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(0);
+
+        // ACT
+        UserDetails result = customUserDetailsService.updatePassword(user, "{bcrypt}$2a$12$new");
+
+        // ASSERT
+        assertEquals("$2a$10$old", result.getPassword());
+    }
+}
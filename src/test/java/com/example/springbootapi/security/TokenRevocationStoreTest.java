@@ -0,0 +1,49 @@
+package com.example.springbootapi.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+public class TokenRevocationStoreTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        store = new TokenRevocationStore(redisTemplate, mock(RedisMessageListenerContainer.class), 1000, 0.01);
+        when(zSetOperations.scan(eq(TokenRevocationStore.KEY), any())).thenReturn(mock(Cursor.class));
+        store.rebuild();
+    }
+
+    @Test
+    void isRevoked_UnknownIdAfterRebuild_AnsweredWithoutRedis() {
+        assertFalse(store.isRevoked("never-revoked"));
+        verify(zSetOperations, never()).score(any(), any());
+    }
+
+    @Test
+    void revoke_SameIdTwice_OnlyFirstCallWins() {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        when(zSetOperations.addIfAbsent(TokenRevocationStore.KEY, "jti-1", expiresAt.toEpochMilli()))
+                .thenReturn(true, false);
+        when(zSetOperations.score(TokenRevocationStore.KEY, "jti-1")).thenReturn((double) expiresAt.toEpochMilli());
+
+        assertTrue(store.revoke("jti-1", expiresAt));
+        assertFalse(store.revoke("jti-1", expiresAt));
+        assertTrue(store.isRevoked("jti-1"));
+        verify(redisTemplate, times(1)).convertAndSend(TokenRevocationStore.CHANNEL, "jti-1");
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.dto.AccountAnalyticsDTO;
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.entity.User;
+import com.example.springbootapi.enums.Granularity;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AccountAnalyticsServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private DailyAccountRollupRepository dailyAccountRollupRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private AccountAnalyticsService accountAnalyticsService;
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAnalytics_Owner_SumsPeriodsAndTotals() {
+        // ARRANGE
+        authenticate("testuser", "ROLE_USER");
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(accountOwnedBy("testuser")));
+        when(dailyAccountRollupRepository.sumByPeriod(1L, FROM, TO, "month")).thenReturn(List.of(
+                period(LocalDate.of(2024, 1, 1), "100.00", "30.00"),
+                period(LocalDate.of(2024, 2, 1), "50.00", "80.00")));
+
+        // ACT
+        AccountAnalyticsDTO result = accountAnalyticsService.getAnalytics(1L, FROM, TO, "Month");
+
+        // ASSERT
+        assertEquals(Granularity.MONTH, result.getGranularity());
+        assertEquals(2, result.getPeriods().size());
+        assertEquals(new BigDecimal("-30.00"), result.getPeriods().get(1).getNet());
+        assertEquals(new BigDecimal("150.00"), result.getTotalInflow());
+        assertEquals(new BigDecimal("110.00"), result.getTotalOutflow());
+    }
+
+    @Test
+    void getAnalytics_NotOwner_ThrowsAccessDenied() {
+        // ARRANGE
+        authenticate("otheruser", "ROLE_USER");
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(accountOwnedBy("testuser")));
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class,
+                () -> accountAnalyticsService.getAnalytics(1L, FROM, TO, "day"));
+        verifyNoInteractions(dailyAccountRollupRepository);
+    }
+
+    @Test
+    void getAnalytics_UnknownGranularity_ThrowsIllegalArgument() {
+        // ARRANGE
+        authenticate("testuser", "ROLE_USER");
+
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class,
+                () -> accountAnalyticsService.getAnalytics(1L, FROM, TO, "year"));
+        verifyNoInteractions(accountRepository, dailyAccountRollupRepository);
+    }
+
+    @Test
+    void rebuildRollups_NotAdmin_ThrowsAccessDenied() {
+        // ARRANGE
+        authenticate("testuser", "ROLE_USER");
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> accountAnalyticsService.rebuildRollups());
+        verifyNoInteractions(transactionTemplate, dailyAccountRollupRepository);
+        verify(accountRepository, never()).lockIdRange(any(), any());
+    }
+
+    private static Account accountOwnedBy(String username) {
+        return Account.builder().id(1L).user(User.builder().username(username).build()).build();
+    }
+
+    private static DailyAccountRollupRepository.FlowPeriod period(LocalDate start, String inflow, String outflow) {
+        return new DailyAccountRollupRepository.FlowPeriod() {
+            public LocalDate getPeriodStart() { return start; }
+            public BigDecimal getInflow() { return new BigDecimal(inflow); }
+            public BigDecimal getOutflow() { return new BigDecimal(outflow); }
+            public Long getInflowCount() { return 1L; }
+            public Long getOutflowCount() { return 1L; }
+        };
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority(role)))
+        );
+    }
+}
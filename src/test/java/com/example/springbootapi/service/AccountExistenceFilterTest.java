@@ -0,0 +1,97 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AccountExistenceFilterTest {
+
+    private static final long TTL_MS = 600_000;
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private AccountExistenceFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        when(accountRepository.streamAccountNumbers()).thenReturn(Stream.of("0xexisting"));
+        filter = new AccountExistenceFilter(accountRepository, transactionTemplate, redisTemplate,
+                mock(RedisMessageListenerContainer.class), registry, 1000, 0.01, TTL_MS, 100, now::get);
+        filter.rebuild();
+    }
+
+    @Test
+    void isKnownAbsent_NumberNotInFilter_ShortCircuitedAndCounted() {
+        assertTrue(filter.isKnownAbsent("0xrandomguess"));
+        assertFalse(filter.isKnownAbsent("0xexisting"));
+        assertEquals(1.0, registry.get("account.lookup.short_circuited").tag("by", "bloom_filter").counter().count());
+    }
+
+    @Test
+    void created_NumberAnsweredFromFilterAndPublished() {
+        filter.created(7L, "0xnew");
+
+        assertFalse(filter.isKnownAbsent("0xnew"));
+        verify(redisTemplate).convertAndSend(AccountExistenceFilter.CHANNEL, "7 0xnew");
+    }
+
+    @Test
+    void rememberAbsent_IdCachedUntilTtlOrCreation() {
+        filter.rememberAbsent(7L, filter.creationCount());
+        assertTrue(filter.isKnownAbsent(7L));
+
+        filter.onMessage(new DefaultMessage(AccountExistenceFilter.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "7 0xnew".getBytes(StandardCharsets.UTF_8)), null);
+        assertFalse(filter.isKnownAbsent(7L));
+        assertFalse(filter.isKnownAbsent("0xnew"));
+
+        filter.rememberAbsent(8L, filter.creationCount());
+        now.addAndGet(TTL_MS);
+        assertFalse(filter.isKnownAbsent(8L));
+    }
+
+    @Test
+    void rememberAbsent_AccountCreatedSinceLookupStarted_NotCached() {
+        long creationCount = filter.creationCount();
+        filter.created(7L, "0xnew");
+
+        filter.rememberAbsent(7L, creationCount);
+
+        assertFalse(filter.isKnownAbsent(7L));
+    }
+
+    @Test
+    void rebuild_DatabaseUnreachable_LookupsStillGoToDatabaseThenKeepCurrentFilter() {
+        doThrow(new CannotCreateTransactionException("Connection refused")).when(transactionTemplate).execute(any());
+        AccountExistenceFilter unsynced = new AccountExistenceFilter(accountRepository, transactionTemplate, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(), 1000, 0.01, TTL_MS, 100, now::get);
+
+        assertDoesNotThrow(unsynced::rebuild);
+        assertFalse(unsynced.isKnownAbsent("0xrandomguess"));
+
+        assertDoesNotThrow(filter::rebuild);
+        assertTrue(filter.isKnownAbsent("0xrandomguess"));
+        assertFalse(filter.isKnownAbsent("0xexisting"));
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.springbootapi.service;
 
+import com.example.springbootapi.cache.EntityVersionCache;
 import com.example.springbootapi.dto.AccountDTO;
 import com.example.springbootapi.dto.CreateAccountRequest;
+import com.example.springbootapi.dto.KeysetPage;
 import com.example.springbootapi.entity.Account;
 import com.example.springbootapi.entity.User;
 import com.example.springbootapi.exception.ResourceNotFoundException;
@@ -15,13 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +47,12 @@ public class AccountServiceTest {
     @Mock
     private AccountMapper accountMapper;
 
+    @Mock
+    private EntityVersionCache entityVersionCache;
+
+    @Mock
+    private AccountExistenceFilter accountExistenceFilter;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -89,6 +101,7 @@ public class AccountServiceTest {
         assertEquals(1L, result.getId());
         verify(userRepository).findById(userId);
         verify(accountRepository).save(any(Account.class));
+        verify(accountExistenceFilter).created(1L, "0x123");
     }
 
     @Test
@@ -108,12 +121,9 @@ public class AccountServiceTest {
     void getAccountById_Success() {
         // ARRANGE
         Long accountId = 1L;
-        Account account = Account.builder().id(accountId).build();
-        AccountDTO dto = new AccountDTO();
-        dto.setId(accountId);
+        AccountDTO dto = AccountDTO.builder().id(accountId).version(4L).userId(7L).username("owner").ownerVersion(2L).build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountMapper.toDTO(account)).thenReturn(dto);
+        when(accountRepository.findDTOById(accountId)).thenReturn(Optional.of(dto));
 
         // ACT
         AccountDTO result = accountService.getAccountById(accountId);
@@ -121,26 +131,49 @@ public class AccountServiceTest {
         // ASSERT
         assertNotNull(result);
         assertEquals(accountId, result.getId());
+        verify(entityVersionCache).putIfAbsent(EntityVersionCache.ACCOUNT, accountId, 4L, 7L);
+        verify(entityVersionCache).putIfAbsent(EntityVersionCache.USER, 7L, 2L, 7L);
     }
 
     @Test
     void getAccountById_NotFound_ThrowsException() {
         // ARRANGE
         Long accountId = 1L;
-        when(accountRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(accountRepository.findDTOById(accountId)).thenReturn(Optional.empty());
 
         // ACT & ASSERT
         assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountById(accountId));
     }
 
+    @Test
+    void getAccountByAccountNumber_KnownAbsent_ThrowsWithoutQuery() {
+        // ARRANGE
+        when(accountExistenceFilter.isKnownAbsent("0xmissing")).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountByAccountNumber("0xmissing"));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void getAccountByAccountNumber_NotFound_RemembersAbsence() {
+        // ARRANGE
+        when(accountExistenceFilter.creationCount()).thenReturn(5L);
+        when(accountRepository.findByAccountNumber("0xfalsepositive")).thenReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountByAccountNumber("0xfalsepositive"));
+        verify(accountExistenceFilter).rememberAbsent("0xfalsepositive", 5L);
+    }
+
     @Test
     void getAccountBalance_Success() {
         // ARRANGE
         Long accountId = 1L;
         BigDecimal balance = new BigDecimal("1500.00");
-        Account account = Account.builder().id(accountId).balance(balance).build();
+        AccountDTO account = AccountDTO.builder().id(accountId).balance(balance).userId(7L).username("owner").build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        when(accountRepository.findDTOById(accountId)).thenReturn(Optional.of(account));
 
         // ACT
         BigDecimal result = accountService.getAccountBalance(accountId);
@@ -149,6 +182,22 @@ public class AccountServiceTest {
         assertEquals(balance, result);
     }
 
+    @Test
+    void getAccountById_OtherUsersAccount_AccessDenied() {
+        // ARRANGE
+        Long accountId = 1L;
+        AccountDTO account = AccountDTO.builder().id(accountId).balance(new BigDecimal("1500.00"))
+                .version(4L).userId(7L).username("owner").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("stranger", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        when(accountRepository.findDTOById(accountId)).thenReturn(Optional.of(account));
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> accountService.getAccountById(accountId));
+        verify(entityVersionCache, never()).putIfAbsent(any(), any(), any(), any());
+    }
+
     @Test
     void getAccountsByUserId_Success() {
         // ARRANGE
@@ -169,6 +218,35 @@ public class AccountServiceTest {
         assertEquals(1L, results.get(0).getId());
     }
 
+    @Test
+    void getAccounts_FullPage_ReturnsLastIdAsCursor() {
+        // ARRANGE
+        ReflectionTestUtils.setField(accountService, "maxPageSize", 1000);
+        List<AccountDTO> page = List.of(AccountDTO.builder().id(11L).build(), AccountDTO.builder().id(12L).build());
+        when(accountRepository.findPageAfter(10L, Limit.of(2))).thenReturn(page);
+
+        // ACT
+        KeysetPage<AccountDTO> result = accountService.getAccounts(10L, 2);
+
+        // ASSERT
+        assertEquals(page, result.getContent());
+        assertEquals(12L, result.getNextAfterId());
+    }
+
+    @Test
+    void getAccounts_LastPage_ReturnsNoCursor() {
+        // ARRANGE
+        ReflectionTestUtils.setField(accountService, "defaultPageSize", 100);
+        when(accountRepository.findPageAfter(0L, Limit.of(100))).thenReturn(List.of(AccountDTO.builder().id(1L).build()));
+
+        // ACT
+        KeysetPage<AccountDTO> result = accountService.getAccounts(null, null);
+
+        // ASSERT
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextAfterId());
+    }
+
     @Test
     void deleteAccount_Success() {
         // ARRANGE
@@ -184,4 +262,102 @@ public class AccountServiceTest {
         assertTrue(result.contains("successfully deleted"));
         verify(accountRepository).delete(account);
     }
+
+    @Test
+    void getAccountETag_CachedVersionOfOwnAccount_ReturnsETag() {
+        // ARRANGE
+        User owner = User.builder().id(7L).username("owner").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(entityVersionCache.get(EntityVersionCache.ACCOUNT, 1L)).thenReturn(new EntityVersionCache.Entry(3, 7L));
+        when(entityVersionCache.get(EntityVersionCache.USER, 7L)).thenReturn(new EntityVersionCache.Entry(2, 7L));
+
+        // ACT & ASSERT
+        assertEquals("W/\"3.2\"", accountService.getAccountETag(1L));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void getAccountETag_OwnerRenamed_ETagChanges() {
+        // ARRANGE
+        User owner = User.builder().id(7L).username("owner").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(entityVersionCache.get(EntityVersionCache.ACCOUNT, 1L)).thenReturn(new EntityVersionCache.Entry(3, 7L));
+        when(entityVersionCache.get(EntityVersionCache.USER, 7L))
+                .thenReturn(new EntityVersionCache.Entry(2, 7L))
+                .thenReturn(new EntityVersionCache.Entry(3, 7L));
+
+        // ACT
+        String beforeRename = accountService.getAccountETag(1L);
+        String afterRename = accountService.getAccountETag(1L);
+
+        // ASSERT
+        assertNotEquals(beforeRename, afterRename);
+        assertEquals("W/\"3.3\"", afterRename);
+    }
+
+    @Test
+    void getAccountETag_CachedVersionOfOtherUsersAccount_ReturnsNull() {
+        // ARRANGE
+        User stranger = User.builder().id(8L).username("stranger").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(stranger, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(entityVersionCache.get(EntityVersionCache.ACCOUNT, 1L)).thenReturn(new EntityVersionCache.Entry(3, 7L));
+
+        // ACT & ASSERT
+        assertNull(accountService.getAccountETag(1L));
+    }
+
+    @Test
+    void getAccountsByIds_OwnAccounts_OneQueryInRequestOrderAndMissingEntriesStored() {
+        // ARRANGE
+        ReflectionTestUtils.setField(accountService, "maxBatchSize", 100);
+        User owner = User.builder().id(7L).username("owner").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        AccountDTO first = AccountDTO.builder().id(1L).version(4L).userId(7L).username("owner").build();
+        AccountDTO second = AccountDTO.builder().id(2L).version(9L).userId(7L).username("owner").build();
+        when(entityVersionCache.getAll(EntityVersionCache.ACCOUNT, List.of(2L, 1L)))
+                .thenReturn(Map.of(2L, new EntityVersionCache.Entry(9, 7L)));
+        when(accountRepository.findDTOsByIdIn(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        // ACT
+        List<AccountDTO> result = accountService.getAccountsByIds(List.of(2L, 1L, 2L));
+
+        // ASSERT
+        assertEquals(List.of(second, first), result);
+        verify(accountRepository, never()).findDTOById(any());
+        verify(entityVersionCache).putAllIfAbsent(EntityVersionCache.ACCOUNT, Map.of(1L, new EntityVersionCache.Entry(4, 7L)));
+    }
+
+    @Test
+    void getAccountsByIds_CachedOwnerIsAnotherUser_DeniedWithoutQuery() {
+        // ARRANGE
+        ReflectionTestUtils.setField(accountService, "maxBatchSize", 100);
+        User stranger = User.builder().id(8L).username("stranger").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(stranger, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        when(entityVersionCache.getAll(EntityVersionCache.ACCOUNT, List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, new EntityVersionCache.Entry(3, 7L)));
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> accountService.getAccountsByIds(List.of(1L, 2L)));
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void getAccountsByIds_OneMissing_NotFoundAndRemembersAbsence() {
+        // ARRANGE
+        ReflectionTestUtils.setField(accountService, "maxBatchSize", 100);
+        AccountDTO first = AccountDTO.builder().id(1L).version(4L).userId(7L).username("owner").build();
+        when(entityVersionCache.getAll(EntityVersionCache.ACCOUNT, List.of(1L, 99L))).thenReturn(Map.of());
+        when(accountExistenceFilter.creationCount()).thenReturn(3L);
+        when(accountRepository.findDTOsByIdIn(List.of(1L, 99L))).thenReturn(List.of(first));
+
+        // ACT & ASSERT
+        assertThrows(ResourceNotFoundException.class, () -> accountService.getAccountsByIds(List.of(1L, 99L)));
+        verify(accountExistenceFilter).rememberAbsent(99L, 3L);
+        verify(entityVersionCache, never()).putAllIfAbsent(any(), any());
+    }
 }
@@ -0,0 +1,142 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.cache.EntityVersionCache;
+import com.example.springbootapi.entity.Account;
+import com.example.springbootapi.entity.LedgerEntry;
+import com.example.springbootapi.entity.Transaction;
+import com.example.springbootapi.enums.LedgerDirection;
+import com.example.springbootapi.enums.TransactionType;
+import com.example.springbootapi.exception.ResourceNotFoundException;
+import com.example.springbootapi.mapper.AccountMapper;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.DailyAccountRollupRepository;
+import com.example.springbootapi.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountMapper accountMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityVersionCache entityVersionCache;
+
+    @Mock
+    private DailyAccountRollupRepository dailyAccountRollupRepository;
+
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void post_Transfer_WritesOneDebitAndOneCredit() {
+        // ARRANGE
+        Account from = Account.builder().id(1L).build();
+        Account to = Account.builder().id(2L).build();
+        Transaction transaction = Transaction.builder()
+                .id(10L).fromAccount(from).toAccount(to)
+                .amount(new BigDecimal("25.00")).type(TransactionType.TRANSFER)
+                .build();
+
+        // ACT
+        ledgerService.post(transaction);
+
+        // ASSERT
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(captor.capture());
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(2, entries.size());
+        assertEquals(LedgerDirection.DEBIT, entries.get(0).getDirection());
+        assertSame(from, entries.get(0).getAccount());
+        assertEquals(LedgerDirection.CREDIT, entries.get(1).getDirection());
+        assertSame(to, entries.get(1).getAccount());
+        assertTrue(entries.stream().allMatch(e -> e.getAmount().equals(new BigDecimal("25.00"))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void post_Deposit_AddsCreditToDailyRollup() {
+        // ARRANGE
+        Account to = Account.builder().id(2L).build();
+        Transaction transaction = Transaction.builder()
+                .id(11L).toAccount(to)
+                .amount(new BigDecimal("40.00")).type(TransactionType.DEPOSIT)
+                .build();
+        LocalDateTime postedAt = LocalDateTime.of(2024, 3, 5, 23, 59);
+        when(ledgerEntryRepository.saveAll(any(List.class))).thenAnswer(invocation -> {
+            List<LedgerEntry> saved = invocation.getArgument(0);
+            saved.forEach(entry -> entry.setCreatedAt(postedAt));
+            return saved;
+        });
+
+        // ACT
+        ledgerService.post(transaction);
+
+        // ASSERT
+        verify(dailyAccountRollupRepository).addFlows(2L, LocalDate.of(2024, 3, 5),
+                new BigDecimal("40.00"), BigDecimal.ZERO, 1, 0);
+        verifyNoMoreInteractions(dailyAccountRollupRepository);
+    }
+
+    @Test
+    void rebuildBalance_NotAdmin_ThrowsAccessDenied() {
+        // ARRANGE
+        authenticate("ROLE_USER");
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> ledgerService.rebuildBalance(1L));
+        verifyNoInteractions(ledgerEntryRepository);
+    }
+
+    @Test
+    void rebuildBalance_AccountNotFound_ThrowsException() {
+        // ARRANGE
+        authenticate("ROLE_ADMIN");
+        when(accountRepository.lockIdRange(99L, 99L)).thenReturn(Collections.emptyList());
+
+        // ACT & ASSERT
+        assertThrows(ResourceNotFoundException.class, () -> ledgerService.rebuildBalance(99L));
+        verify(ledgerEntryRepository, never()).rebuildBalances(any(), any());
+    }
+
+    private static void authenticate(String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null, List.of(new SimpleGrantedAuthority(role)))
+        );
+    }
+}
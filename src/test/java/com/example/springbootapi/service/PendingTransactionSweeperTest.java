@@ -0,0 +1,69 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class PendingTransactionSweeperTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PendingTransactionSweeper sweeper =
+            new PendingTransactionSweeper(transactionRepository, transactionTemplate, registry);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(sweeper, "staleAfterMillis", 300000L);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(sweeper, "maxBatches", 10);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void sweep_ResolvesBatchesUntilAPartialOne() {
+        // ARRANGE — a full batch (1 posted, 1 not), then a partial batch (1 not posted)
+        when(transactionRepository.claimStalePending(any(), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(transactionRepository.completePendingWithLedgerEntries(List.of(1L, 2L))).thenReturn(1);
+        when(transactionRepository.failPending(List.of(1L, 2L))).thenReturn(1);
+        when(transactionRepository.completePendingWithLedgerEntries(List.of(3L))).thenReturn(0);
+        when(transactionRepository.failPending(List.of(3L))).thenReturn(1);
+
+        // ACT
+        sweeper.sweep();
+
+        // ASSERT
+        verify(transactionRepository, times(2)).claimStalePending(any(), anyInt());
+        assertEquals(1, registry.get("transaction.pending.recovered").tag("resolution", "completed").counter().count());
+        assertEquals(2, registry.get("transaction.pending.recovered").tag("resolution", "failed").counter().count());
+    }
+
+    @Test
+    void sweep_NothingStale_DoesNoUpdates() {
+        // ARRANGE
+        when(transactionRepository.claimStalePending(any(), anyInt())).thenReturn(Collections.emptyList());
+
+        // ACT
+        sweeper.sweep();
+
+        // ASSERT
+        verify(transactionRepository, never()).completePendingWithLedgerEntries(any());
+        verify(transactionRepository, never()).failPending(any());
+    }
+}
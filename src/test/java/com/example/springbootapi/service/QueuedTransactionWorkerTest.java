@@ -0,0 +1,108 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.repository.TransactionRepository;
+import com.example.springbootapi.repository.TransactionRepository.QueuedTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class QueuedTransactionWorkerTest {
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final QueuedTransactionWorker worker = new QueuedTransactionWorker(
+            transactionService, transactionRepository, mock(TransactionQueue.class), transactionTemplate, 2);
+
+    // 1: transfer 10 -> 20, 2: deposit to 30, 3: withdrawal from 20, 4: withdrawal from 10
+    private final List<QueuedTransaction> batch = List.of(
+            queued(1L, 10L, 20L), queued(2L, null, 30L), queued(3L, 20L, null), queued(4L, 10L, null));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "batchSize", 100);
+        ReflectionTestUtils.setField(worker, "maxBatches", 20);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        doAnswer(inv -> {
+            ((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(transactionRepository.claimQueued(anyInt())).thenReturn(batch);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void groupByAccount_TransactionsLinkedThroughAccounts_SameGroupInIdOrder() {
+        assertEquals(List.of(List.of(1L, 3L, 4L), List.of(2L)), QueuedTransactionWorker.groupByAccount(batch));
+    }
+
+    @Test
+    void drain_TransactionsSharingAnAccount_RunInIdOrder() throws InterruptedException {
+        // ACT
+        worker.drain();
+
+        // ASSERT
+        InOrder inOrder = inOrder(transactionService);
+        inOrder.verify(transactionService).processQueued(1L);
+        inOrder.verify(transactionService).processQueued(3L);
+        inOrder.verify(transactionService).processQueued(4L);
+        verify(transactionService).processQueued(2L);
+        verify(transactionRepository).dequeue(List.of(1L, 2L, 3L, 4L));
+        verify(transactionRepository, never()).requeue(any());
+    }
+
+    @Test
+    void drain_ConflictInGroup_RestOfGroupRequeuedUnprocessed() throws InterruptedException {
+        // ARRANGE
+        when(transactionService.processQueued(1L))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Account", 10L));
+
+        // ACT
+        worker.drain();
+
+        // ASSERT
+        verify(transactionRepository).requeue(List.of(1L, 3L, 4L));
+        verify(transactionService, never()).processQueued(3L);
+        verify(transactionService, never()).processQueued(4L);
+        verify(transactionService).processQueued(2L);
+    }
+
+    private static QueuedTransaction queued(Long id, Long fromAccountId, Long toAccountId) {
+        return new QueuedTransaction() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getFromAccountId() {
+                return fromAccountId;
+            }
+
+            @Override
+            public Long getToAccountId() {
+                return toAccountId;
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.entity.ReconciliationRun;
+import com.example.springbootapi.enums.ReconciliationStatus;
+import com.example.springbootapi.mapper.ReconciliationMapper;
+import com.example.springbootapi.repository.AccountRepository;
+import com.example.springbootapi.repository.ReconciliationMismatchRepository;
+import com.example.springbootapi.repository.ReconciliationRunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReconciliationServiceTest {
+
+    @Mock
+    private ReconciliationRunRepository runRepository;
+
+    @Mock
+    private ReconciliationMismatchRepository mismatchRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ReconciliationMapper reconciliationMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reconciliationService, "rangeSize", 10);
+        ReflectionTestUtils.setField(reconciliationService, "parallelism", 2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null,
+                        List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void execute_SplitsIdSpaceIntoRanges_AndCompletesRun() {
+        // ARRANGE — ids 1..25 with range size 10 gives [1,10], [11,20], [21,30]
+        ReconciliationRun run = ReconciliationRun.builder().id(7L).status(ReconciliationStatus.RUNNING).build();
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(25L);
+        when(accountRepository.countByIdBetween(any(), any())).thenReturn(10L);
+        when(mismatchRepository.insertMismatches(eq(7L), any(), any())).thenReturn(0);
+        when(mismatchRepository.insertMismatches(7L, 11L, 20L)).thenReturn(2);
+        when(runRepository.findById(7L)).thenReturn(Optional.of(run));
+        doAnswer(inv -> {
+            ((Consumer<Object>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // ACT
+        reconciliationService.execute(run);
+
+        // ASSERT
+        verify(mismatchRepository).insertMismatches(7L, 1L, 10L);
+        verify(mismatchRepository).insertMismatches(7L, 11L, 20L);
+        verify(mismatchRepository).insertMismatches(7L, 21L, 30L);
+        verify(runRepository).recordRange(7L, 10L, 2L);
+        assertEquals(3, run.getRangesTotal());
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        assertNotNull(run.getFinishedAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startRun_AlreadyRunning_ThrowsIllegalState() {
+        // ARRANGE — the partial unique index rejects a second RUNNING row
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+        when(runRepository.saveAndFlush(any(ReconciliationRun.class)))
+                .thenThrow(new DataIntegrityViolationException("uq_reconciliation_runs_running"));
+
+        // ACT & ASSERT
+        assertThrows(IllegalStateException.class, () -> reconciliationService.startRun());
+    }
+
+    @Test
+    void startRun_NotAdmin_ThrowsAccessDenied() {
+        // ARRANGE
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null,
+                        List.of(new SimpleGrantedAuthority("ROLE_USER")))
+        );
+
+        // ACT & ASSERT
+        assertThrows(AccessDeniedException.class, () -> reconciliationService.startRun());
+        verifyNoInteractions(runRepository);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.springbootapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryBackoffTest {
+
+    private final RetryBackoff retryBackoff = new RetryBackoff();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retryBackoff, "baseDelayMillis", 1000L);
+        ReflectionTestUtils.setField(retryBackoff, "maxDelayMillis", 60000L);
+        ReflectionTestUtils.setField(retryBackoff, "maxAttempts", 5);
+    }
+
+    @Test
+    void nextAttemptAt_DoublesPerAttempt_WithJitterInUpperHalf() {
+        for (int attempts = 1; attempts < 5; attempts++) {
+            long delay = 1000L << (attempts - 1);
+            LocalDateTime before = LocalDateTime.now();
+            long actual = Duration.between(before, retryBackoff.nextAttemptAt(attempts)).toMillis();
+
+            assertTrue(actual >= delay / 2 - 5 && actual <= delay + 5,
+                    "attempt " + attempts + ": " + actual + "ms outside [" + delay / 2 + ", " + delay + "]");
+        }
+    }
+
+    @Test
+    void nextAttemptAt_CappedAtMaxDelay() {
+        ReflectionTestUtils.setField(retryBackoff, "maxAttempts", 100);
+
+        long actual = Duration.between(LocalDateTime.now(), retryBackoff.nextAttemptAt(40)).toMillis();
+
+        assertTrue(actual <= 60000 + 5);
+    }
+
+    @Test
+    void nextAttemptAt_AttemptsExhausted_ReturnsNull() {
+        assertNull(retryBackoff.nextAttemptAt(5));
+    }
+}
@@ -6,8 +6,11 @@ import com.example.springbootapi.entity.Account;
 import com.example.springbootapi.entity.Transaction;
 import com.example.springbootapi.enums.TransactionStatus;
 import com.example.springbootapi.enums.TransactionType;
+import com.example.springbootapi.exception.QueueFullException;
 import com.example.springbootapi.exception.ResourceNotFoundException;
+import com.example.springbootapi.exception.VelocityLimitExceededException;
 import com.example.springbootapi.mapper.TransactionMapper;
+import com.example.springbootapi.metrics.TransactionMetrics;
 import com.example.springbootapi.repository.AccountRepository;
 import com.example.springbootapi.repository.TransactionRepository;
 import com.example.springbootapi.repository.UserRepository;
@@ -15,9 +18,11 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,12 +33,17 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,6 +61,21 @@ public class SimpleTransactionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionMetrics transactionMetrics;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private RetryBackoff retryBackoff;
+
+    @Mock
+    private TransactionQueue transactionQueue;
+
+    @Mock
+    private VelocityLimiter velocityLimiter;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -114,6 +139,7 @@ public class SimpleTransactionServiceTest {
         verify(accountRepository).findById(2L);
         // Save called twice: once for PENDING, once for COMPLETED
         verify(transactionRepository, times(2)).save(any(Transaction.class));
+        verify(ledgerService).post(any(Transaction.class));
     }
 
     // ============================================
@@ -297,12 +323,40 @@ public class SimpleTransactionServiceTest {
 
         // Save called twice: once for PENDING, once for FAILED
         verify(transactionRepository, times(2)).save(any(Transaction.class));
+        // Nothing moved, so nothing is posted to the ledger
+        verify(ledgerService, never()).post(any(Transaction.class));
 
         // Balance unchanged
         assertEquals(new BigDecimal("1000.00"), fromAccount.getBalance());
         assertEquals(new BigDecimal("500.00"), toAccount.getBalance());
     }
 
+    // ============================================
+    // TEST 7b: Version conflict during the update → FAILED row, outcome timed as CONFLICT
+    // ============================================
+    @Test
+    void createTransaction_ConflictInFlight_RecordsConflictOutcome() {
+        // ARRANGE
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setFromAccountId(1L);
+        request.setAmount(new BigDecimal("100.00"));
+        request.setType(TransactionType.WITHDRAWAL);
+        Account fromAccount = Account.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.save(fromAccount)).thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // ACT
+        transactionService.createTransaction(request);
+
+        // ASSERT
+        verify(transactionMetrics).recordConflict(1L, null);
+        verify(transactionMetrics).recordOutcome(eq(TransactionType.WITHDRAWAL), eq(TransactionMetrics.Outcome.CONFLICT),
+                anyLong(), eq(1L), isNull());
+        verify(ledgerService, never()).post(any(Transaction.class));
+    }
+
     // ============================================
     // TEST 8: Pagination - Get All Transactions
     // ============================================
@@ -325,4 +379,227 @@ public class SimpleTransactionServiceTest {
         assertEquals(1, result.getTotalElements());
         verify(transactionRepository).findAll(pageable);
     }
+
+    // ============================================
+    // TEST 9: Background retry hits a version conflict again → next attempt scheduled
+    // ============================================
+    @Test
+    void retryScheduled_ConflictAgain_SchedulesNextAttempt() {
+        // ARRANGE
+        Account fromAccount = Account.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+        Transaction failed = Transaction.builder()
+                .id(5L)
+                .fromAccount(fromAccount)
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.FAILED)
+                .attempts(1)
+                .nextRetryAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+        LocalDateTime next = LocalDateTime.now().plusSeconds(10);
+
+        when(transactionRepository.lockById(5L)).thenReturn(Optional.of(5L));
+        when(transactionRepository.findByIdWithAccounts(5L)).thenReturn(Optional.of(failed));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(accountRepository.save(fromAccount)).thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+        when(transactionRepository.save(failed)).thenReturn(failed);
+        when(retryBackoff.nextAttemptAt(2)).thenReturn(next);
+
+        // ACT
+        TransactionStatus status = transactionService.retryScheduled(5L);
+
+        // ASSERT
+        assertEquals(TransactionStatus.FAILED, status);
+        assertEquals(2, failed.getAttempts());
+        assertEquals(next, failed.getNextRetryAt());
+        verify(ledgerService, never()).post(any(Transaction.class));
+    }
+
+    // ============================================
+    // TEST 9b: Background retry still short of funds → final, no further attempt
+    // ============================================
+    @Test
+    void retryScheduled_StillInsufficientFunds_NoFurtherAttempt() {
+        // ARRANGE
+        Account fromAccount = Account.builder().id(1L).balance(new BigDecimal("10.00")).build();
+        Transaction failed = Transaction.builder()
+                .id(5L)
+                .fromAccount(fromAccount)
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.WITHDRAWAL)
+                .status(TransactionStatus.FAILED)
+                .attempts(1)
+                .nextRetryAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+
+        when(transactionRepository.lockById(5L)).thenReturn(Optional.of(5L));
+        when(transactionRepository.findByIdWithAccounts(5L)).thenReturn(Optional.of(failed));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(transactionRepository.save(failed)).thenReturn(failed);
+
+        // ACT
+        TransactionStatus status = transactionService.retryScheduled(5L);
+
+        // ASSERT
+        assertEquals(TransactionStatus.FAILED, status);
+        assertNull(failed.getNextRetryAt());
+        verifyNoInteractions(retryBackoff);
+    }
+
+    // ============================================
+    // TEST 9c: Insufficient funds is final → the row is never picked up for a background retry
+    // ============================================
+    @Test
+    void createTransaction_InsufficientFunds_NeverPickedUpByRetryScheduler() {
+        // ARRANGE
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setFromAccountId(1L);
+        request.setAmount(new BigDecimal("5000.00"));
+        request.setType(TransactionType.WITHDRAWAL);
+        Account fromAccount = Account.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+        transactionService.createTransaction(request);
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(2)).save(saved.capture());
+        Transaction failed = saved.getValue();
+        when(transactionRepository.lockById(7L)).thenReturn(Optional.of(7L));
+        when(transactionRepository.findByIdWithAccounts(7L)).thenReturn(Optional.of(failed));
+
+        // ACT
+        TransactionStatus status = transactionService.retryScheduled(7L);
+
+        // ASSERT
+        assertEquals(TransactionStatus.FAILED, status);
+        assertNull(failed.getNextRetryAt());
+        assertEquals(1, failed.getAttempts());
+        assertEquals(new BigDecimal("1000.00"), fromAccount.getBalance());
+        verify(accountRepository, times(1)).findById(1L);
+        verifyNoInteractions(retryBackoff);
+    }
+
+    // ============================================
+    // TEST 10: Background retry of a transaction completed since it was claimed → left alone
+    // ============================================
+    @Test
+    void retryScheduled_AlreadyCompleted_DoesNothing() {
+        // ARRANGE
+        Transaction completed = Transaction.builder()
+                .id(6L)
+                .status(TransactionStatus.COMPLETED)
+                .build();
+        when(transactionRepository.lockById(6L)).thenReturn(Optional.of(6L));
+        when(transactionRepository.findByIdWithAccounts(6L)).thenReturn(Optional.of(completed));
+
+        // ACT
+        TransactionStatus status = transactionService.retryScheduled(6L);
+
+        // ASSERT
+        assertEquals(TransactionStatus.COMPLETED, status);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verifyNoInteractions(accountRepository);
+    }
+
+    // ============================================
+    // TEST 11: Async submission → QUEUED, balances untouched
+    // ============================================
+    @Test
+    void submitTransaction_ValidDeposit_SavesQueuedWithoutTouchingBalance() {
+        // ARRANGE
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setToAccountId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+        request.setType(TransactionType.DEPOSIT);
+        Account toAccount = Account.builder().id(2L).balance(new BigDecimal("500.00")).build();
+
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(transactionMapper.toDTO(any(Transaction.class))).thenReturn(new TransactionDTO());
+
+        // ACT
+        transactionService.submitTransaction(request);
+
+        // ASSERT
+        verify(transactionQueue).reserve();
+        verify(transactionRepository).save(argThat(t -> t.getStatus() == TransactionStatus.QUEUED && t.getAttempts() == 0));
+        verify(accountRepository, never()).save(any(Account.class));
+        assertEquals(new BigDecimal("500.00"), toAccount.getBalance());
+    }
+
+    // ============================================
+    // TEST 12: Async submission with a full queue → rejected, nothing saved
+    // ============================================
+    @Test
+    void submitTransaction_QueueFull_NothingSaved() {
+        // ARRANGE
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setToAccountId(2L);
+        request.setAmount(new BigDecimal("100.00"));
+        request.setType(TransactionType.DEPOSIT);
+
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(Account.builder().id(2L).build()));
+        doThrow(new QueueFullException("full")).when(transactionQueue).reserve();
+
+        // ACT & ASSERT
+        assertThrows(QueueFullException.class, () -> transactionService.submitTransaction(request));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    // ============================================
+    // TEST 13: Dequeued submission → first attempt completes and posts to the ledger
+    // ============================================
+    @Test
+    void processQueued_DequeuedDeposit_Completes() {
+        // ARRANGE
+        Account toAccount = Account.builder().id(2L).balance(new BigDecimal("500.00")).build();
+        Transaction dequeued = Transaction.builder()
+                .id(7L)
+                .toAccount(toAccount)
+                .amount(new BigDecimal("100.00"))
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.PENDING)
+                .build();
+
+        when(transactionRepository.lockById(7L)).thenReturn(Optional.of(7L));
+        when(transactionRepository.findByIdWithAccounts(7L)).thenReturn(Optional.of(dequeued));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(toAccount));
+        when(transactionRepository.save(dequeued)).thenReturn(dequeued);
+
+        // ACT
+        TransactionStatus status = transactionService.processQueued(7L);
+
+        // ASSERT
+        assertEquals(TransactionStatus.COMPLETED, status);
+        assertEquals(1, dequeued.getAttempts());
+        assertEquals(new BigDecimal("600.00"), toAccount.getBalance());
+        verify(ledgerService).post(dequeued);
+    }
+
+    // ============================================
+    // TEST 14: Withdrawal over the account's velocity limit → rejected before any write
+    // ============================================
+    @Test
+    void createTransaction_VelocityLimitExceeded_NothingSaved() {
+        // ARRANGE
+        CreateTransactionRequest request = new CreateTransactionRequest();
+        request.setFromAccountId(1L);
+        request.setAmount(new BigDecimal("200.00"));
+        request.setType(TransactionType.WITHDRAWAL);
+
+        Account fromAccount = Account.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(fromAccount));
+        doThrow(new VelocityLimitExceededException("limit", 60))
+                .when(velocityLimiter).reserve(1L, new BigDecimal("200.00"));
+
+        // ACT & ASSERT
+        assertThrows(VelocityLimitExceededException.class, () -> transactionService.createTransaction(request));
+        assertEquals(new BigDecimal("1000.00"), fromAccount.getBalance());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
 }
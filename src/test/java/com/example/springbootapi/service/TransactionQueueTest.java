@@ -0,0 +1,45 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.enums.TransactionStatus;
+import com.example.springbootapi.exception.QueueFullException;
+import com.example.springbootapi.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TransactionQueueTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final TransactionQueue transactionQueue = new TransactionQueue(transactionRepository, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionQueue, "enabled", true);
+        ReflectionTestUtils.setField(transactionQueue, "capacity", 2L);
+    }
+
+    @Test
+    void reserve_AtCapacity_ThrowsQueueFull() {
+        transactionQueue.reserve();
+        transactionQueue.reserve();
+
+        assertThrows(QueueFullException.class, transactionQueue::reserve);
+        assertEquals(2, transactionQueue.depth());
+    }
+
+    @Test
+    void refresh_AfterDrain_FreesCapacity() {
+        transactionQueue.reserve();
+        transactionQueue.reserve();
+        when(transactionRepository.countByStatus(TransactionStatus.QUEUED)).thenReturn(0L);
+
+        transactionQueue.refresh();
+
+        assertEquals(0, transactionQueue.depth());
+        assertDoesNotThrow(transactionQueue::reserve);
+    }
+}
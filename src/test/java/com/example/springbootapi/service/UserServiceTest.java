@@ -1,5 +1,6 @@
 package com.example.springbootapi.service;
 
+import com.example.springbootapi.cache.EntityVersionCache;
 import com.example.springbootapi.dto.UserRequestDTO;
 import com.example.springbootapi.dto.UserResponseDTO;
 import com.example.springbootapi.entity.User;
@@ -13,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 
@@ -32,6 +34,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private EntityVersionCache entityVersionCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -113,6 +118,16 @@ public class UserServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(userId));
     }
 
+    @Test
+    void getUsers_SizeAboveMax_ThrowsException() {
+        // ARRANGE
+        ReflectionTestUtils.setField(userService, "maxPageSize", 1000);
+
+        // ACT & ASSERT
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, 1001));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void updateUser_Success() {
         // ARRANGE
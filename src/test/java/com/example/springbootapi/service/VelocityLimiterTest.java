@@ -0,0 +1,97 @@
+package com.example.springbootapi.service;
+
+import com.example.springbootapi.exception.VelocityLimitExceededException;
+import com.example.springbootapi.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class VelocityLimiterTest {
+
+    private static final long WINDOW_MS = 3_600_000;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final AtomicLong now = new AtomicLong(10 * WINDOW_MS);
+    private VelocityLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // 3 outflows or 500.00 per hour, in one-minute buckets
+        limiter = new VelocityLimiter(mock(TransactionRepository.class), redisTemplate,
+                mock(RedisMessageListenerContainer.class), true, WINDOW_MS, 60, 3, new BigDecimal("500.00"), now::get);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_OverMaxOutflows_RejectedUntilOldestBucketLeavesWindow() {
+        // ARRANGE
+        limiter.reserve(1L, new BigDecimal("10.00"));
+        now.addAndGet(30 * 60_000);
+        limiter.reserve(1L, new BigDecimal("10.00"));
+        limiter.reserve(1L, new BigDecimal("10.00"));
+
+        // ACT & ASSERT
+        VelocityLimitExceededException rejected = assertThrows(VelocityLimitExceededException.class,
+                () -> limiter.reserve(1L, new BigDecimal("10.00")));
+        assertEquals(30 * 60, rejected.getRetryAfterSeconds());
+        limiter.reserve(2L, new BigDecimal("10.00"));
+
+        now.addAndGet(30 * 60_000);
+        assertDoesNotThrow(() -> limiter.reserve(1L, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void reserve_OverMaxAmount_RejectedWithoutCountingIt() {
+        // ARRANGE
+        limiter.reserve(1L, new BigDecimal("400.00"));
+
+        // ACT & ASSERT
+        assertThrows(VelocityLimitExceededException.class, () -> limiter.reserve(1L, new BigDecimal("100.01")));
+        assertDoesNotThrow(() -> limiter.reserve(1L, new BigDecimal("100.00")));
+    }
+
+    @Test
+    void reserve_TransactionRolledBack_OutflowTakenBackAndNotPublished() {
+        // ARRANGE
+        TransactionSynchronizationManager.initSynchronization();
+        limiter.reserve(1L, new BigDecimal("500.00"));
+
+        // ACT
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // ASSERT
+        TransactionSynchronizationManager.clearSynchronization();
+        assertDoesNotThrow(() -> limiter.reserve(1L, new BigDecimal("500.00")));
+        verify(redisTemplate, times(1)).convertAndSend(eq(VelocityLimiter.CHANNEL), anyString());
+    }
+
+    @Test
+    void onMessage_OutflowFromOtherNode_CountsTowardsLimit() {
+        // ARRANGE
+        limiter.onMessage(new DefaultMessage(VelocityLimiter.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ("other-node 1 " + now.get() + " 45000").getBytes(StandardCharsets.UTF_8)), null);
+
+        // ACT & ASSERT
+        assertThrows(VelocityLimitExceededException.class, () -> limiter.reserve(1L, new BigDecimal("50.01")));
+    }
+}